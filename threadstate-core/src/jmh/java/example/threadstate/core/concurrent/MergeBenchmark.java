@@ -0,0 +1,96 @@
+package example.threadstate.core.concurrent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Compares CompletableFutures.merge() with the former chain of thenCombine() stages and with allOf(),
+// for futures completed in reverse order, the worst case of the chain
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MergeBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"merge", "thenCombineChain", "allOf"})
+    private String mergeType;
+
+    @Benchmark
+    public List<Integer> mergeReverseCompletion() {
+        final List<CompletableFuture<Integer>> futures = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            futures.add(new CompletableFuture<>());
+        }
+
+        final CompletableFuture<List<Integer>> merged;
+        switch (mergeType) {
+            case "merge":
+                merged = CompletableFutures.merge(futures);
+                break;
+            case "thenCombineChain":
+                merged = thenCombineChain(futures);
+                break;
+            case "allOf":
+                merged = allOf(futures);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown merge type " + mergeType);
+        }
+
+        for (int i = size - 1; i >= 0; i--) {
+            futures.get(i).complete(i);
+        }
+        return merged.join();
+    }
+
+    // Former implementation of CompletableFutures.merge()
+    private static <T> CompletableFuture<List<T>> thenCombineChain(final List<CompletableFuture<T>> futures) {
+        final int size = futures.size();
+        final Iterator<CompletableFuture<T>> iterator = futures.iterator();
+
+        CompletableFuture<List<T>> mergedFuture = iterator.next().thenApply(item -> {
+            final List<T> items = new ArrayList<>(size);
+            items.add(item);
+            return items;
+        });
+
+        while (iterator.hasNext()) {
+            mergedFuture = mergedFuture.thenCombine(iterator.next(), (items, item) -> {
+                items.add(item);
+                return items;
+            });
+        }
+
+        return mergedFuture.thenApply(Collections::unmodifiableList);
+    }
+
+    private static <T> CompletableFuture<List<T>> allOf(final List<CompletableFuture<T>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            final List<T> items = new ArrayList<>(futures.size());
+            for (final CompletableFuture<T> future : futures) {
+                items.add(future.join());
+            }
+            return Collections.unmodifiableList(items);
+        });
+    }
+
+}
@@ -0,0 +1,85 @@
+package example.threadstate.core.executors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Compares the ring buffer executor with a ThreadPoolExecutor of the same size, with 4 submitting threads
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class RingBufferExecutorBenchmark {
+
+    private static final int BURST_SIZE = 1000;
+
+    @Param({"ringBuffer", "threadPool", "cachedThreadPool"})
+    private String executorType;
+
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() {
+        final int workers = 4;
+        switch (executorType) {
+            case "ringBuffer":
+                executor = new RingBufferExecutorService(workers, 4096, Executors.defaultThreadFactory());
+                break;
+            case "threadPool":
+                executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+                break;
+            case "cachedThreadPool":
+                executor = Executors.newCachedThreadPool();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown executor type " + executorType);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    // Tail latency of a single handoff: submit a task and wait for its completion
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object roundTrip() throws Exception {
+        return executor.submit(() -> Boolean.TRUE).get();
+    }
+
+    // Throughput of bursts of tiny tasks
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @OperationsPerInvocation(BURST_SIZE)
+    public void burst() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(BURST_SIZE);
+        for (int i = 0; i < BURST_SIZE; i++) {
+            executor.execute(latch::countDown);
+        }
+        latch.await();
+    }
+
+}
@@ -0,0 +1,79 @@
+package example.threadstate.core.memento;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.MDC;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CachedMementoSaverBenchmark {
+
+    private static final ThreadStateContext.Slot<String> USER = ThreadStateContext.newSlot();
+
+    private static final ThreadStateContext.Slot<String> TENANT = ThreadStateContext.newSlot();
+
+    private final ThreadLocal<Object> local1 = new ThreadLocal<>();
+
+    private final ThreadLocal<Object> local2 = new ThreadLocal<>();
+
+    private ThreadStateMementoSaver saver;
+
+    private ThreadStateMementoSaver cachedSaver;
+
+    private int counter;
+
+    @Setup
+    public void setUp() {
+        saver = new LogbackMDCMementoSaver()
+            .andThen(new ThreadStateContextMementoSaver())
+            .andThen(new ThreadLocalMementoSaver<>(local1))
+            .andThen(new ThreadLocalMementoSaver<>(local2));
+        cachedSaver = saver.cached();
+
+        for (int i = 0; i < 5; i++) {
+            MDC.put("key" + i, "value" + i);
+        }
+        USER.set("user");
+        TENANT.set("tenant");
+        local1.set(new Object());
+        local2.set(new Object());
+    }
+
+    @TearDown
+    public void tearDown() {
+        MDC.clear();
+    }
+
+    @Benchmark
+    public ThreadStateMemento save() {
+        return saver.save();
+    }
+
+    @Benchmark
+    public ThreadStateMemento cachedSave() {
+        return cachedSaver.save();
+    }
+
+    @Benchmark
+    public ThreadStateMemento cachedSaveAfterMdcChange() {
+        // As done by a filter such as CorrelationIDFilter between two submissions
+        MDC.put("CorrelationID", (counter++ & 1) == 0 ? "a" : "b");
+        return cachedSaver.save();
+    }
+
+}
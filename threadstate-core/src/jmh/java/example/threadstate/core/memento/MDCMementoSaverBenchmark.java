@@ -0,0 +1,89 @@
+package example.threadstate.core.memento;
+
+import org.apache.logging.log4j.ThreadContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MDCMementoSaverBenchmark {
+
+    @Param({"1", "5", "20"})
+    private int keys;
+
+    @Param({"generic", "logback", "log4j2"})
+    private String saverType;
+
+    private MDCMementoSaver saver;
+
+    private Map<String, String> captured;
+
+    @Setup
+    public void setUp() throws Exception {
+        switch (saverType) {
+            case "logback":
+                saver = new LogbackMDCMementoSaver();
+                break;
+            case "log4j2":
+                saver = new Log4j2MDCMementoSaver();
+                break;
+            default:
+                saver = new MDCMementoSaver();
+        }
+
+        // Captured by another thread, as done by a request thread submitting a task
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            captured = executor.submit(() -> {
+                fillContext();
+                return saver.capture();
+            }).get();
+        } finally {
+            executor.shutdown();
+        }
+
+        fillContext();
+    }
+
+    @Benchmark
+    public Map<String, String> capture() {
+        return saver.capture();
+    }
+
+    @Benchmark
+    public Object restoreAndCleanup() {
+        final Object previous = saver.restore(captured);
+        saver.cleanup(captured, previous);
+        return previous;
+    }
+
+    private void fillContext() {
+        for (int i = 0; i < keys; i++) {
+            if (saver instanceof Log4j2MDCMementoSaver) {
+                ThreadContext.put("key" + i, "value" + i);
+            } else {
+                MDC.put("key" + i, "value" + i);
+            }
+        }
+    }
+
+}
@@ -1,22 +1,35 @@
 package example.threadstate.core.concurrent;
 
+import example.threadstate.core.executors.Sheddable;
 import javaslang.control.Try;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 public final class CompletableFutures {
@@ -48,60 +61,131 @@ public final class CompletableFutures {
         return future;
     }
 
+    // Same as CompletableFuture.supplyAsync(), except that the future completes exceptionally when the task is dropped
+    // by a load shedding queue
+    public static <T> CompletableFuture<T> supplyAsync(final Supplier<T> supplier, final Executor executor) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        executor.execute(new SupplyTask<>(future, supplier));
+        return future;
+    }
+
+    public static CompletableFuture<Void> runAsync(final Runnable runnable, final Executor executor) {
+        return supplyAsync(() -> {
+            runnable.run();
+            return null;
+        }, executor);
+    }
+
+    // Completes once every future is completed, exceptionally with the failure of the first failed future in list order
     public static <T> CompletableFuture<List<T>> merge(final List<CompletableFuture<T>> futures) {
+        return merge(futures, false, false);
+    }
+
+    // Completes exceptionally as soon as a future fails, with the later failures attached as suppressed exceptions.
+    // If cancelOnFailure is set, the other futures are cancelled on failure: tasks of CompletableFutures.supplyAsync()
+    // are then skipped if they're still queued.
+    public static <T> CompletableFuture<List<T>> mergeFailFast(final List<CompletableFuture<T>> futures, final boolean cancelOnFailure) {
+        return merge(futures, true, cancelOnFailure);
+    }
+
+    public static <T> CompletableFuture<List<T>> mergeFailFast(final List<CompletableFuture<T>> futures) {
+        return mergeFailFast(futures, false);
+    }
+
+    private static <T> CompletableFuture<List<T>> merge(
+        final List<CompletableFuture<T>> futures,
+        final boolean failFast,
+        final boolean cancelOnFailure
+    ) {
         final int size = futures.size();
 
         if (size == 0) {
             return CompletableFuture.completedFuture(Collections.emptyList());
         }
 
-        final Iterator<CompletableFuture<T>> iterator = futures.iterator();
+        final Merge<List<T>> merge = new Merge<>(size, values -> {
+            @SuppressWarnings("unchecked")
+            final List<T> items = (List<T>) Arrays.asList(values);
+            return Collections.unmodifiableList(items);
+        }, failFast, cancelOnFailure ? futures : null);
+        int index = 0;
+        for (final CompletableFuture<T> future : futures) {
+            future.whenComplete(merge.element(index++));
+        }
+        return merge.result;
+    }
 
-        CompletableFuture<List<T>> mergedFuture = iterator.next().thenApply(item -> {
-            final List<T> items = new ArrayList<>(size);
-            items.add(item);
-            return items;
-        });
+    public static <K, T> CompletableFuture<Map<K, T>> mergeMap(final Map<K, CompletableFuture<T>> futures, Supplier<Map<K, T>> mapFactory) {
+        return mergeMap(futures, mapFactory, false, false);
+    }
 
-        while (iterator.hasNext()) {
-            mergedFuture = mergedFuture.thenCombine(iterator.next(), (items, item) -> {
-                items.add(item);
-                return items;
-            });
-        }
+    public static <K, T> CompletableFuture<Map<K, T>> mergeMap(final Map<K, CompletableFuture<T>> futures) {
+        return mergeMap(futures, HashMap::new);
+    }
 
-        return mergedFuture.thenApply(Collections::unmodifiableList);
+    // See mergeFailFast()
+    public static <K, T> CompletableFuture<Map<K, T>> mergeMapFailFast(
+        final Map<K, CompletableFuture<T>> futures,
+        final Supplier<Map<K, T>> mapFactory,
+        final boolean cancelOnFailure
+    ) {
+        return mergeMap(futures, mapFactory, true, cancelOnFailure);
     }
 
-    public static <K, T> CompletableFuture<Map<K, T>> mergeMap(final Map<K, CompletableFuture<T>> futures, Supplier<Map<K, T>> mapFactory) {
+    public static <K, T> CompletableFuture<Map<K, T>> mergeMapFailFast(final Map<K, CompletableFuture<T>> futures, final boolean cancelOnFailure) {
+        return mergeMapFailFast(futures, HashMap::new, cancelOnFailure);
+    }
+
+    public static <K, T> CompletableFuture<Map<K, T>> mergeMapFailFast(final Map<K, CompletableFuture<T>> futures) {
+        return mergeMapFailFast(futures, false);
+    }
+
+    private static <K, T> CompletableFuture<Map<K, T>> mergeMap(
+        final Map<K, CompletableFuture<T>> futures,
+        final Supplier<Map<K, T>> mapFactory,
+        final boolean failFast,
+        final boolean cancelOnFailure
+    ) {
         final int size = futures.size();
 
         if (size == 0) {
             return CompletableFuture.completedFuture(Collections.emptyMap());
         }
 
-        final Iterator<Map.Entry<K, CompletableFuture<T>>> iterator = futures.entrySet().iterator();
-
-        final Map.Entry<K, CompletableFuture<T>> firstEntry = iterator.next();
-        CompletableFuture<Map<K, T>> mergedFuture = firstEntry.getValue().thenApply(item -> {
+        final Object[] keys = new Object[size];
+        final Merge<Map<K, T>> merge = new Merge<>(size, values -> {
             final Map<K, T> items = mapFactory.get();
-            items.put(firstEntry.getKey(), item);
-            return items;
-        });
-
-        while (iterator.hasNext()) {
-            final Map.Entry<K, CompletableFuture<T>> entry = iterator.next();
-            mergedFuture = mergedFuture.thenCombine(entry.getValue(), (items, item) -> {
-                items.put(entry.getKey(), item);
-                return items;
-            });
+            for (int i = 0; i < values.length; i++) {
+                @SuppressWarnings("unchecked")
+                final K key = (K) keys[i];
+                @SuppressWarnings("unchecked")
+                final T item = (T) values[i];
+                items.put(key, item);
+            }
+            return Collections.unmodifiableMap(items);
+        }, failFast, cancelOnFailure ? futures.values() : null);
+        int index = 0;
+        for (final Map.Entry<K, CompletableFuture<T>> entry : futures.entrySet()) {
+            // Written before the future is listened to: visible when the last future completes
+            keys[index] = entry.getKey();
+            entry.getValue().whenComplete(merge.element(index++));
         }
-
-        return mergedFuture.thenApply(Collections::unmodifiableMap);
+        return merge.result;
     }
 
-    public static <K, T> CompletableFuture<Map<K, T>> mergeMap(final Map<K, CompletableFuture<T>> futures) {
-        return mergeMap(futures, HashMap::new);
+    // Applies the async function to every input, with at most maxConcurrency futures in flight: the next input is
+    // started when a future completes. Results are in input order. Fails fast: no input is started after a failure.
+    public static <T, R> CompletableFuture<List<R>> mapAsync(
+        final Iterable<? extends T> inputs,
+        final Function<? super T, ? extends CompletableFuture<? extends R>> function,
+        final int maxConcurrency
+    ) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Max concurrency must be positive");
+        }
+        final MapAsync<T, R> mapAsync = new MapAsync<>(inputs.iterator(), function, maxConcurrency);
+        mapAsync.drain();
+        return mapAsync.result;
     }
 
     public static <T> CompletableFuture<T> await(
@@ -110,10 +194,96 @@ public final class CompletableFutures {
         final TimeUnit timeUnit
     ) {
         final CompletableFuture<T> future = new CompletableFuture<>();
-        scheduledExecutor.schedule(() -> future.complete(null), delay, timeUnit);
+        final ScheduledFuture<?> timer = scheduledExecutor.schedule(() -> future.complete(null), delay, timeUnit);
+        // The timer is useless once the future is cancelled or completed by the caller
+        future.whenComplete((ignored, exception) -> cancelTimer(scheduledExecutor, timer));
         return future;
     }
 
+    // Same as CompletableFuture.orTimeout() of Java 9, except that the returned future is a new one: on timeout,
+    // it completes exceptionally with a TimeoutException, and the given future is cancelled if cancelOnTimeout is set.
+    // The timer is cancelled and removed from a ScheduledThreadPoolExecutor as soon as the future completes.
+    public static <T> CompletableFuture<T> withTimeout(
+        final CompletableFuture<T> future,
+        final long timeout,
+        final TimeUnit timeUnit,
+        final ScheduledExecutorService scheduledExecutor,
+        final boolean cancelOnTimeout
+    ) {
+        return onTimeout(future, timeout, timeUnit, scheduledExecutor, cancelOnTimeout, result -> result.completeExceptionally(
+            new TimeoutException("Not completed after " + timeout + " " + timeUnit.toString().toLowerCase())
+        ));
+    }
+
+    public static <T> CompletableFuture<T> withTimeout(
+        final CompletableFuture<T> future,
+        final long timeout,
+        final TimeUnit timeUnit,
+        final ScheduledExecutorService scheduledExecutor
+    ) {
+        return withTimeout(future, timeout, timeUnit, scheduledExecutor, false);
+    }
+
+    // Same as CompletableFuture.completeOnTimeout() of Java 9, see withTimeout()
+    public static <T> CompletableFuture<T> completeOnTimeout(
+        final CompletableFuture<T> future,
+        final T value,
+        final long timeout,
+        final TimeUnit timeUnit,
+        final ScheduledExecutorService scheduledExecutor,
+        final boolean cancelOnTimeout
+    ) {
+        return onTimeout(future, timeout, timeUnit, scheduledExecutor, cancelOnTimeout, result -> result.complete(value));
+    }
+
+    public static <T> CompletableFuture<T> completeOnTimeout(
+        final CompletableFuture<T> future,
+        final T value,
+        final long timeout,
+        final TimeUnit timeUnit,
+        final ScheduledExecutorService scheduledExecutor
+    ) {
+        return completeOnTimeout(future, value, timeout, timeUnit, scheduledExecutor, false);
+    }
+
+    private static <T> CompletableFuture<T> onTimeout(
+        final CompletableFuture<T> future,
+        final long timeout,
+        final TimeUnit timeUnit,
+        final ScheduledExecutorService scheduledExecutor,
+        final boolean cancelOnTimeout,
+        final Predicate<CompletableFuture<T>> timeoutCompletion
+    ) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        // No timer when already done: the returned future is still a new one, completed right away
+        if (!future.isDone()) {
+            final ScheduledFuture<?> timer = scheduledExecutor.schedule(() -> {
+                // Tasks of CompletableFutures.supplyAsync() are skipped once their future is cancelled
+                if (timeoutCompletion.test(result) && cancelOnTimeout) {
+                    future.cancel(true);
+                }
+            }, timeout, timeUnit);
+            result.whenComplete((ignored, exception) -> cancelTimer(scheduledExecutor, timer));
+        }
+
+        future.whenComplete((value, exception) -> {
+            if (exception != null) {
+                result.completeExceptionally(exception);
+            } else {
+                result.complete(value);
+            }
+        });
+        return result;
+    }
+
+    // A cancelled task stays queued in a ScheduledThreadPoolExecutor until its delay unless its remove on cancel
+    // policy is set: it's removed right away instead
+    private static void cancelTimer(final ScheduledExecutorService scheduledExecutor, final ScheduledFuture<?> timer) {
+        if (timer.cancel(false) && scheduledExecutor instanceof ThreadPoolExecutor && timer instanceof Runnable) {
+            ((ThreadPoolExecutor) scheduledExecutor).remove((Runnable) timer);
+        }
+    }
+
     public static <T> BiFunction<T, Throwable, Optional<T>> toOptional() {
         return (value, exception) -> {
             if (exception != null) {
@@ -147,4 +317,210 @@ public final class CompletableFutures {
         };
     }
 
+    // Merges the results of futures with a countdown instead of a chain of stages: every completion is O(1),
+    // whatever the order of completion
+    private static final class Merge<R> extends AtomicInteger {
+
+        private static final long serialVersionUID = 1L;
+
+        private final CompletableFuture<R> result = new CompletableFuture<>();
+
+        private final Object[] values;
+
+        private final Function<Object[], R> finisher;
+
+        private final boolean failFast;
+
+        // Null when futures are not cancelled on failure
+        private final Collection<? extends CompletableFuture<?>> cancelledOnFailure;
+
+        private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+
+        Merge(
+            int size,
+            Function<Object[], R> finisher,
+            boolean failFast,
+            Collection<? extends CompletableFuture<?>> cancelledOnFailure
+        ) {
+            super(size);
+            this.values = new Object[size];
+            this.finisher = finisher;
+            this.failFast = failFast;
+            this.cancelledOnFailure = cancelledOnFailure;
+        }
+
+        BiConsumer<Object, Throwable> element(int index) {
+            return (value, exception) -> {
+                // Published by the countdown to the thread completing the last future
+                values[index] = exception != null ? new Failure(exception) : value;
+                if (exception != null && failFast) {
+                    fail(exception);
+                }
+                if (decrementAndGet() == 0) {
+                    finish();
+                }
+            };
+        }
+
+        private void fail(Throwable exception) {
+            final Throwable cause = unwrapException(exception);
+            if (firstFailure.compareAndSet(null, cause)) {
+                result.completeExceptionally(wrapException(exception));
+                if (cancelledOnFailure != null) {
+                    for (final CompletableFuture<?> future : cancelledOnFailure) {
+                        future.cancel(true);
+                    }
+                }
+                return;
+            }
+
+            // Cancellations caused by the first failure are not worth reporting
+            final Throwable first = firstFailure.get();
+            if (cause != first && !(cancelledOnFailure != null && cause instanceof CancellationException)) {
+                first.addSuppressed(cause);
+            }
+        }
+
+        // Does nothing once failed fast
+        private void finish() {
+            for (final Object value : values) {
+                if (value instanceof Failure) {
+                    result.completeExceptionally(wrapException(((Failure) value).exception));
+                    return;
+                }
+            }
+            try {
+                result.complete(finisher.apply(values));
+            } catch (final Throwable e) {
+                result.completeExceptionally(wrapException(e));
+            }
+        }
+
+    }
+
+    // Work in progress counter: inputs are started by a single thread at a time, in a loop rather than recursively
+    // when futures complete synchronously
+    private static final class MapAsync<T, R> extends AtomicInteger {
+
+        private static final long serialVersionUID = 1L;
+
+        private final CompletableFuture<List<R>> result = new CompletableFuture<>();
+
+        private final Function<? super T, ? extends CompletableFuture<? extends R>> function;
+
+        private final int maxConcurrency;
+
+        // Guarded by this
+        private final Iterator<? extends T> inputs;
+
+        // Guarded by this
+        private final List<R> results = new ArrayList<>();
+
+        // Guarded by this
+        private int inFlight;
+
+        MapAsync(Iterator<? extends T> inputs, Function<? super T, ? extends CompletableFuture<? extends R>> function, int maxConcurrency) {
+            this.inputs = inputs;
+            this.function = function;
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        void drain() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                startInputs();
+            } while (decrementAndGet() != 0);
+        }
+
+        private void startInputs() {
+            for (;;) {
+                final T input;
+                final int index;
+                synchronized (this) {
+                    if (result.isDone()) {
+                        return;
+                    }
+                    if (!inputs.hasNext()) {
+                        if (inFlight == 0) {
+                            result.complete(Collections.unmodifiableList(results));
+                        }
+                        return;
+                    }
+                    if (inFlight >= maxConcurrency) {
+                        return;
+                    }
+                    input = inputs.next();
+                    index = results.size();
+                    results.add(null);
+                    inFlight++;
+                }
+
+                final CompletableFuture<? extends R> future;
+                try {
+                    future = function.apply(input);
+                } catch (final Throwable e) {
+                    result.completeExceptionally(wrapException(e));
+                    return;
+                }
+                future.whenComplete((value, exception) -> complete(index, value, exception));
+            }
+        }
+
+        private void complete(int index, R value, Throwable exception) {
+            if (exception != null) {
+                result.completeExceptionally(wrapException(exception));
+                return;
+            }
+            synchronized (this) {
+                results.set(index, value);
+                inFlight--;
+            }
+            drain();
+        }
+
+    }
+
+    private static final class Failure {
+
+        private final Throwable exception;
+
+        Failure(Throwable exception) {
+            this.exception = exception;
+        }
+
+    }
+
+    private static final class SupplyTask<T> implements Runnable, Sheddable {
+
+        private final CompletableFuture<T> future;
+
+        private final Supplier<T> supplier;
+
+        SupplyTask(CompletableFuture<T> future, Supplier<T> supplier) {
+            this.future = future;
+            this.supplier = supplier;
+        }
+
+        @Override
+        public void run() {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(supplier.get());
+            } catch (final Throwable e) {
+                // Wrapped as done by CompletableFuture.supplyAsync()
+                future.completeExceptionally(wrapException(e));
+            }
+        }
+
+        @Override
+        public void shed(RejectedExecutionException exception) {
+            future.completeExceptionally(wrapException(exception));
+        }
+
+    }
+
 }
@@ -0,0 +1,487 @@
+package example.threadstate.core.concurrent;
+
+import example.threadstate.core.executors.Sheddable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Timer scheduling tasks in O(1), for large amounts of timeouts and backoff delays which are mostly cancelled or
+// short lived. Scheduled tasks are queued without lock and moved by the timer thread into the bucket of a wheel
+// of buckets, turning by one bucket every tick: tasks fire at most one tick late, never early.
+// Cancelled tasks are removed from their bucket on the next tick.
+// Expired tasks run on the timer thread, unless an executor is given: they must be short, e.g. completing a future.
+// Tasks submitted without delay run on the next tick. On shutdown, delayed tasks still run and periodic tasks
+// are cancelled, as with a ScheduledThreadPoolExecutor.
+public class HashedWheelTimer extends AbstractExecutorService implements ScheduledExecutorService {
+
+    private static final int INIT = 0;
+
+    private static final int STARTED = 1;
+
+    private static final int SHUTDOWN = 2;
+
+    private static final int STOP = 3;
+
+    private static final int TERMINATED = 4;
+
+    // Bounds the time spent in a tick when tasks are scheduled faster than they expire
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+
+    private final Bucket[] wheel;
+
+    private final int mask;
+
+    private final Executor taskExecutor;
+
+    private final Thread worker;
+
+    private final AtomicInteger state = new AtomicInteger(INIT);
+
+    private final CountDownLatch terminated = new CountDownLatch(1);
+
+    private final Queue<TimerTask<?>> pendingTasks = new ConcurrentLinkedQueue<>();
+
+    private final Queue<TimerTask<?>> cancelledTasks = new ConcurrentLinkedQueue<>();
+
+    // Tasks in the wheel or about to be, including periodic tasks being run
+    private final AtomicLong scheduledCount = new AtomicLong();
+
+    public HashedWheelTimer(long tickDuration, TimeUnit unit, int wheelSize, ThreadFactory threadFactory) {
+        this(tickDuration, unit, wheelSize, threadFactory, null);
+    }
+
+    public HashedWheelTimer(long tickDuration, TimeUnit unit, int wheelSize, ThreadFactory threadFactory, Executor taskExecutor) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        if (wheelSize <= 0 || wheelSize > 1 << 30) {
+            throw new IllegalArgumentException("Invalid wheel size: " + wheelSize);
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        // Rounded to a power of two, to find buckets with a mask
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = wheel.length - 1;
+        this.taskExecutor = taskExecutor;
+        this.worker = threadFactory.newThread(new Worker());
+    }
+
+    public long getScheduledCount() {
+        return scheduledCount.get();
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        return schedule(new TimerTask<Void>(command, deadline(delay, unit), 0));
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        return schedule(new TimerTask<>(callable, deadline(delay, unit)));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+        return schedule(new TimerTask<Void>(command, deadline(initialDelay, unit), unit.toNanos(period)));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        if (delay <= 0) {
+            throw new IllegalArgumentException("Delay must be positive");
+        }
+        return schedule(new TimerTask<Void>(command, deadline(initialDelay, unit), -unit.toNanos(delay)));
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        schedule(command, 0, TimeUnit.NANOSECONDS);
+    }
+
+    private static long deadline(long delay, TimeUnit unit) {
+        // Avoids overflows of far away deadlines
+        return System.nanoTime() + Math.min(unit.toNanos(Math.max(delay, 0)), Long.MAX_VALUE >> 1);
+    }
+
+    private <V> TimerTask<V> schedule(TimerTask<V> task) {
+        if (state.get() == INIT && state.compareAndSet(INIT, STARTED)) {
+            worker.start();
+        }
+
+        // Counted first: the timer thread doesn't terminate while a task may still be added
+        scheduledCount.incrementAndGet();
+        if (state.get() != STARTED) {
+            scheduledCount.decrementAndGet();
+            throw new RejectedExecutionException("Timer is shut down");
+        }
+        pendingTasks.add(task);
+        return task;
+    }
+
+    @Override
+    public void shutdown() {
+        for (;;) {
+            final int current = state.get();
+            if (current == INIT && state.compareAndSet(INIT, TERMINATED)) {
+                terminated.countDown();
+                return;
+            }
+            if (current != INIT && current != STARTED) {
+                return;
+            }
+            if (current == STARTED && state.compareAndSet(STARTED, SHUTDOWN)) {
+                return;
+            }
+        }
+    }
+
+    // Returns the tasks which didn't run, without cancelling them
+    @Override
+    public List<Runnable> shutdownNow() {
+        for (;;) {
+            final int current = state.get();
+            if (current == INIT && state.compareAndSet(INIT, TERMINATED)) {
+                terminated.countDown();
+                return new ArrayList<>();
+            }
+            if (current >= STOP || state.compareAndSet(current, STOP)) {
+                break;
+            }
+        }
+
+        if (Thread.currentThread() == worker) {
+            return new ArrayList<>();
+        }
+        LockSupport.unpark(worker);
+        boolean interrupted = false;
+        while (worker.isAlive()) {
+            try {
+                worker.join();
+            } catch (final InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        // The timer thread is done: buckets are safe to read
+        final List<Runnable> remaining = new ArrayList<>();
+        for (final Bucket bucket : wheel) {
+            bucket.drainTo(remaining);
+        }
+        TimerTask<?> task;
+        while ((task = pendingTasks.poll()) != null) {
+            if (!task.isCancelled()) {
+                remaining.add(task);
+            }
+        }
+        return remaining;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return state.get() >= SHUTDOWN;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return state.get() == TERMINATED;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return terminated.await(timeout, unit);
+    }
+
+    private void reschedule(TimerTask<?> task) {
+        if (state.get() != STARTED) {
+            task.cancel(false);
+            scheduledCount.decrementAndGet();
+            return;
+        }
+        pendingTasks.add(task);
+    }
+
+    private final class Worker implements Runnable {
+
+        private long startTime;
+
+        private long tick;
+
+        private boolean periodicTasksCancelled;
+
+        @Override
+        public void run() {
+            startTime = System.nanoTime();
+            try {
+                while (awaitNextTick()) {
+                    if (!periodicTasksCancelled && state.get() == SHUTDOWN) {
+                        cancelPeriodicTasks();
+                    }
+                    removeCancelledTasks();
+                    transferPendingTasks();
+                    wheel[(int) (tick & mask)].expire();
+                    tick++;
+
+                    if (state.get() == SHUTDOWN && scheduledCount.get() == 0) {
+                        break;
+                    }
+                }
+            } finally {
+                // Once stopped, remaining tasks are collected by shutdownNow()
+                state.set(TERMINATED);
+                terminated.countDown();
+            }
+        }
+
+        private boolean awaitNextTick() {
+            final long tickTime = startTime + (tick + 1) * tickNanos;
+            for (;;) {
+                if (state.get() >= STOP) {
+                    return false;
+                }
+                final long sleepNanos = tickTime - System.nanoTime();
+                if (sleepNanos <= 0) {
+                    return true;
+                }
+                LockSupport.parkNanos(this, sleepNanos);
+            }
+        }
+
+        private void cancelPeriodicTasks() {
+            periodicTasksCancelled = true;
+            for (final Bucket bucket : wheel) {
+                bucket.cancelPeriodicTasks();
+            }
+        }
+
+        private void removeCancelledTasks() {
+            TimerTask<?> task;
+            while ((task = cancelledTasks.poll()) != null) {
+                // Not in a bucket yet: discarded when transferred
+                if (task.bucket != null) {
+                    task.bucket.remove(task);
+                    scheduledCount.decrementAndGet();
+                }
+            }
+        }
+
+        private void transferPendingTasks() {
+            for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+                final TimerTask<?> task = pendingTasks.poll();
+                if (task == null) {
+                    return;
+                }
+                if (task.isPeriodic() && state.get() != STARTED) {
+                    task.cancel(false);
+                }
+                if (task.isCancelled()) {
+                    scheduledCount.decrementAndGet();
+                    continue;
+                }
+
+                final long expirationTick = Math.max(0, task.deadline - startTime) / tickNanos;
+                task.remainingRounds = (expirationTick - tick) / wheel.length;
+                // Tasks already expired fire on the current tick
+                wheel[(int) (Math.max(expirationTick, tick) & mask)].add(task);
+            }
+        }
+
+    }
+
+    private final class Bucket {
+
+        private TimerTask<?> head;
+
+        private TimerTask<?> tail;
+
+        void add(TimerTask<?> task) {
+            task.bucket = this;
+            if (head == null) {
+                head = task;
+            } else {
+                tail.next = task;
+                task.prev = tail;
+            }
+            tail = task;
+        }
+
+        void remove(TimerTask<?> task) {
+            final TimerTask<?> next = task.next;
+            if (task.prev != null) {
+                task.prev.next = next;
+            } else {
+                head = next;
+            }
+            if (next != null) {
+                next.prev = task.prev;
+            } else {
+                tail = task.prev;
+            }
+            task.prev = null;
+            task.next = null;
+            task.bucket = null;
+        }
+
+        void expire() {
+            TimerTask<?> task = head;
+            while (task != null) {
+                final TimerTask<?> next = task.next;
+                if (task.isCancelled()) {
+                    remove(task);
+                    scheduledCount.decrementAndGet();
+                } else if (task.remainingRounds <= 0) {
+                    remove(task);
+                    dispatch(task);
+                } else {
+                    task.remainingRounds--;
+                }
+                task = next;
+            }
+        }
+
+        void cancelPeriodicTasks() {
+            for (TimerTask<?> task = head; task != null; task = task.next) {
+                if (task.isPeriodic()) {
+                    task.cancel(false);
+                }
+            }
+        }
+
+        void drainTo(List<Runnable> tasks) {
+            TimerTask<?> task;
+            while ((task = head) != null) {
+                remove(task);
+                if (!task.isCancelled()) {
+                    tasks.add(task);
+                }
+            }
+        }
+
+        private void dispatch(TimerTask<?> task) {
+            // Periodic tasks stay counted until they're rescheduled or done
+            if (!task.isPeriodic()) {
+                scheduledCount.decrementAndGet();
+            }
+            if (taskExecutor == null) {
+                task.run();
+                return;
+            }
+            try {
+                taskExecutor.execute(task);
+            } catch (final RejectedExecutionException e) {
+                task.shed(e);
+            }
+        }
+
+    }
+
+    private final class TimerTask<V> extends FutureTask<V> implements RunnableScheduledFuture<V>, Sheddable {
+
+        // 0 for delayed tasks, > 0 for fixed rate tasks, < 0 for fixed delay tasks
+        private final long period;
+
+        private volatile long deadline;
+
+        // Guarded by the timer thread
+        private long remainingRounds;
+
+        private Bucket bucket;
+
+        private TimerTask<?> prev;
+
+        private TimerTask<?> next;
+
+        TimerTask(Callable<V> callable, long deadline) {
+            super(callable);
+            this.deadline = deadline;
+            this.period = 0;
+        }
+
+        TimerTask(Runnable runnable, long deadline, long period) {
+            super(runnable, null);
+            this.deadline = deadline;
+            this.period = period;
+        }
+
+        @Override
+        public boolean isPeriodic() {
+            return period != 0;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other == this) {
+                return 0;
+            }
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+
+        @Override
+        public void run() {
+            if (!isPeriodic()) {
+                super.run();
+                return;
+            }
+            if (!runAndReset()) {
+                scheduledCount.decrementAndGet();
+                return;
+            }
+            deadline = period > 0 ? deadline + period : System.nanoTime() - period;
+            reschedule(this);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            final boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                cancelledTasks.add(this);
+            }
+            return cancelled;
+        }
+
+        @Override
+        public void shed(RejectedExecutionException exception) {
+            setException(exception);
+            if (isPeriodic()) {
+                scheduledCount.decrementAndGet();
+            }
+        }
+
+    }
+
+}
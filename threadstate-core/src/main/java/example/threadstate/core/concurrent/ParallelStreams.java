@@ -0,0 +1,97 @@
+package example.threadstate.core.concurrent;
+
+import example.threadstate.core.executors.TaskWrapper;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public final class ParallelStreams {
+
+    private ParallelStreams() {
+        // Utility class
+    }
+
+    // Runs a parallel stream pipeline on the given pool instead of the common pool. The state of the calling thread
+    // is captured once, and restored once per leaf of the split source. Only stages pulling elements from the source
+    // run with it: stages after a barrier such as sorted() or distinct() consume the buffered elements from tasks of
+    // the stream itself, which run without the state.
+    public static <T, R> R run(
+        final ForkJoinPool pool,
+        final TaskWrapper taskWrapper,
+        final Collection<T> source,
+        final Function<? super Stream<T>, R> pipeline
+    ) {
+        return run(pool, taskWrapper, source.spliterator(), pipeline);
+    }
+
+    public static <T, R> R run(
+        final ForkJoinPool pool,
+        final TaskWrapper taskWrapper,
+        final Spliterator<T> source,
+        final Function<? super Stream<T>, R> pipeline
+    ) {
+        final Stream<T> stream = StreamSupport.stream(new ScopedSpliterator<>(source, taskWrapper.bind()), true);
+        // Terminal operations run in the pool of the calling worker
+        return pool.invoke(ForkJoinTask.adapt(() -> pipeline.apply(stream)));
+    }
+
+    private static final class ScopedSpliterator<T> implements Spliterator<T> {
+
+        private final Spliterator<T> spliterator;
+
+        private final TaskWrapper scope;
+
+        ScopedSpliterator(Spliterator<T> spliterator, TaskWrapper scope) {
+            this.spliterator = spliterator;
+            this.scope = scope;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            scope.wrapRunnable(() -> spliterator.forEachRemaining(action)).run();
+        }
+
+        // Only used by short-circuiting operations, the state is then restored for each element
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            final boolean[] advanced = new boolean[1];
+            scope.wrapRunnable(() -> advanced[0] = spliterator.tryAdvance(action)).run();
+            return advanced[0];
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            final Spliterator<T> split = spliterator.trySplit();
+            return split != null ? new ScopedSpliterator<>(split, scope) : null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return spliterator.estimateSize();
+        }
+
+        @Override
+        public long getExactSizeIfKnown() {
+            return spliterator.getExactSizeIfKnown();
+        }
+
+        @Override
+        public int characteristics() {
+            return spliterator.characteristics();
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return spliterator.getComparator();
+        }
+
+    }
+
+}
@@ -0,0 +1,240 @@
+package example.threadstate.core.executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Limits the number of tasks running in the delegate, adjusting the limit from their latency (AIMD): the limit grows
+// by one per window of tasks completed under the target latency, and is cut by a ratio when a task is slower.
+// Tasks over the limit are queued, then rejected when the queue is full. Queued tasks rejected by the delegate are
+// notified through Sheddable. On shutdown, queued tasks still go through the limit: the delegate is only shut down
+// once they're all completed.
+public class AdaptiveConcurrencyLimitExecutorService extends AbstractExecutorService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdaptiveConcurrencyLimitExecutorService.class);
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final ExecutorService delegate;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final long targetLatencyNanos;
+
+    private final int maxQueueSize;
+
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger queueSize = new AtomicInteger();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // Guarded by this
+    private double limit;
+
+    // Guarded by this: samples to ignore after a decrease, so that the limit is only cut once per window
+    private int cooldown;
+
+    private volatile int currentLimit;
+
+    private volatile boolean shutdown;
+
+    public AdaptiveConcurrencyLimitExecutorService(ExecutorService delegate) {
+        this(delegate, 1, 20, 1000, 100, TimeUnit.MILLISECONDS, 1000);
+    }
+
+    public AdaptiveConcurrencyLimitExecutorService(
+        ExecutorService delegate,
+        int minLimit,
+        int initialLimit,
+        int maxLimit,
+        long targetLatency,
+        TimeUnit unit,
+        int maxQueueSize
+    ) {
+        if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit || maxQueueSize < 0) {
+            throw new IllegalArgumentException("Invalid limits");
+        }
+        this.delegate = delegate;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = unit.toNanos(targetLatency);
+        this.maxQueueSize = maxQueueSize;
+        this.limit = initialLimit;
+        this.currentLimit = initialLimit;
+    }
+
+    public int getLimit() {
+        return currentLimit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getQueueSize() {
+        return queueSize.get();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (shutdown) {
+            throw new RejectedExecutionException("Executor is shut down");
+        }
+        if (tryAcquire()) {
+            dispatch(command);
+            return;
+        }
+
+        if (queueSize.incrementAndGet() > maxQueueSize) {
+            queueSize.decrementAndGet();
+            throw new RejectedExecutionException("Concurrency limit " + currentLimit + " reached and queue is full");
+        }
+        queue.add(command);
+        // The queue may have been drained by a concurrent shutdown() before the command was added
+        if (shutdown && queue.remove(command)) {
+            queueSize.decrementAndGet();
+            throw new RejectedExecutionException("Executor is shut down");
+        }
+        // Running tasks may have completed before the command was queued
+        drain();
+    }
+
+    private boolean tryAcquire() {
+        for (;;) {
+            final int count = inFlight.get();
+            if (count >= currentLimit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(count, count + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void drain() {
+        while (!queue.isEmpty() && tryAcquire()) {
+            final Runnable command = queue.poll();
+            if (command == null) {
+                inFlight.decrementAndGet();
+            } else {
+                queueSize.decrementAndGet();
+                dispatchQueued(command);
+            }
+        }
+    }
+
+    // Runs on the thread of a completed task, or of another submission: the rejection can only be notified to the
+    // queued command itself
+    private void dispatchQueued(Runnable command) {
+        try {
+            dispatch(command);
+        } catch (final RejectedExecutionException e) {
+            if (!Sheddable.shed(command, e)) {
+                LOGGER.warn("Dropping task {}: {}", command, e.getMessage());
+            }
+        }
+    }
+
+    private void dispatch(Runnable command) {
+        final long start = System.nanoTime();
+        try {
+            delegate.execute(() -> {
+                boolean ok = false;
+                try {
+                    command.run();
+                    ok = true;
+                } finally {
+                    release(System.nanoTime() - start, ok);
+                }
+            });
+        } catch (final RuntimeException e) {
+            inFlight.decrementAndGet();
+            onSample(Long.MAX_VALUE);
+            throw e;
+        }
+    }
+
+    private void release(long latencyNanos, boolean ok) {
+        inFlight.decrementAndGet();
+        // Failed tasks may be fast failures: they don't grow the limit
+        onSample(ok ? latencyNanos : Long.MAX_VALUE);
+        drain();
+        shutdownDelegateIfDone();
+    }
+
+    private synchronized void onSample(long latencyNanos) {
+        if (latencyNanos > targetLatencyNanos) {
+            if (cooldown > 0) {
+                cooldown--;
+                return;
+            }
+            limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+            cooldown = (int) limit;
+        } else {
+            if (cooldown > 0) {
+                cooldown--;
+            }
+            // Only grow when the limit is actually used
+            if (inFlight.get() + 1 >= limit / 2) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        }
+        currentLimit = (int) limit;
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        drain();
+        shutdownDelegateIfDone();
+    }
+
+    // Queued tasks were accepted: the delegate must keep accepting them until the last one is completed
+    private void shutdownDelegateIfDone() {
+        if (shutdown && queue.isEmpty() && inFlight.get() == 0) {
+            delegate.shutdown();
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown = true;
+        final List<Runnable> remaining = new ArrayList<>();
+        Runnable command;
+        while ((command = queue.poll()) != null) {
+            queueSize.decrementAndGet();
+            remaining.add(command);
+        }
+        remaining.addAll(delegate.shutdownNow());
+        return remaining;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return shutdown && queue.isEmpty() && delegate.isTerminated();
+    }
+
+    // The delegate is only shut down once the queue is drained
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+}
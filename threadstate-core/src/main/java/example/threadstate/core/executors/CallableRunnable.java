@@ -0,0 +1,36 @@
+package example.threadstate.core.executors;
+
+import java.util.concurrent.Callable;
+
+// Fallback for task wrappers which only wrap callables
+final class CallableRunnable implements Runnable, SubmissionAware {
+
+    private final Callable<?> callable;
+
+    CallableRunnable(Callable<?> callable) {
+        this.callable = callable;
+    }
+
+    @Override
+    public void run() {
+        try {
+            callable.call();
+        } catch (final RuntimeException e) {
+            throw e;
+        } catch (final Exception e) {
+            // Only thrown by the wrapper itself, wrapped runnables can't throw checked exceptions
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void beforeSubmit() {
+        DelegatedExecutor.beforeSubmit(callable);
+    }
+
+    @Override
+    public void afterSubmit() {
+        DelegatedExecutor.afterSubmit(callable);
+    }
+
+}
@@ -0,0 +1,214 @@
+package example.threadstate.core.executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+// Work queue shedding load with CoDel: it tracks the time tasks spend waiting in it (sojourn time). When the sojourn
+// time stays above the target for a whole interval, the queue enters the dropping state: it drops every dequeued
+// task which waited more than the target, and refuses new tasks, until a task is dequeued under the target again
+// or the queue is drained. Dropped tasks are notified through Sheddable.
+public class CoDelBlockingQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CoDelBlockingQueue.class);
+
+    private final BlockingQueue<Entry> queue;
+
+    private final long targetNanos;
+
+    private final long intervalNanos;
+
+    // Guarded by this: time at which the sojourn time will have been above the target for an interval, or 0
+    private long firstAboveTime;
+
+    private volatile boolean dropping;
+
+    public CoDelBlockingQueue(long target, long interval, TimeUnit unit) {
+        this(target, interval, unit, Integer.MAX_VALUE);
+    }
+
+    public CoDelBlockingQueue(long target, long interval, TimeUnit unit, int capacity) {
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.targetNanos = unit.toNanos(target);
+        this.intervalNanos = unit.toNanos(interval);
+    }
+
+    public boolean isDropping() {
+        return dropping;
+    }
+
+    @Override
+    public boolean offer(Runnable task) {
+        return admits() && queue.offer(new Entry(task));
+    }
+
+    @Override
+    public boolean offer(Runnable task, long timeout, TimeUnit unit) throws InterruptedException {
+        return admits() && queue.offer(new Entry(task), timeout, unit);
+    }
+
+    @Override
+    public void put(Runnable task) throws InterruptedException {
+        if (!admits()) {
+            throw new RejectedExecutionException("Queue is dropping tasks");
+        }
+        queue.put(new Entry(task));
+    }
+
+    // Admission: refuse new work while the queue is known to be overloaded. Without any task left to dequeue, no
+    // dequeue would ever leave the dropping state: a drained queue isn't overloaded anymore.
+    private boolean admits() {
+        if (dropping && queue.isEmpty()) {
+            synchronized (this) {
+                firstAboveTime = 0;
+                dropping = false;
+            }
+        }
+        return !dropping;
+    }
+
+    @Override
+    public Runnable poll() {
+        Entry entry;
+        while ((entry = queue.poll()) != null) {
+            if (!shouldDrop(entry)) {
+                return entry.task;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        Entry entry;
+        while ((entry = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) != null) {
+            if (!shouldDrop(entry)) {
+                return entry.task;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+        for (;;) {
+            final Entry entry = queue.take();
+            if (!shouldDrop(entry)) {
+                return entry.task;
+            }
+        }
+    }
+
+    private boolean shouldDrop(Entry entry) {
+        final long now = System.nanoTime();
+        final long sojourn = now - entry.enqueueTime;
+        if (!isAboveTarget(now, sojourn)) {
+            return false;
+        }
+
+        final RejectedExecutionException exception = new RejectedExecutionException(
+            "Task dropped after waiting " + TimeUnit.NANOSECONDS.toMillis(sojourn) + " ms in queue"
+        );
+        if (!Sheddable.shed(entry.task, exception)) {
+            LOGGER.warn("Dropping task {}: {}", entry.task, exception.getMessage());
+        }
+        return true;
+    }
+
+    private synchronized boolean isAboveTarget(long now, long sojourn) {
+        if (sojourn < targetNanos) {
+            firstAboveTime = 0;
+            dropping = false;
+            return false;
+        }
+        if (dropping) {
+            return true;
+        }
+        if (firstAboveTime == 0) {
+            firstAboveTime = now + intervalNanos;
+            return false;
+        }
+        if (now - firstAboveTime >= 0) {
+            dropping = true;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Runnable peek() {
+        final Entry entry = queue.peek();
+        return entry != null ? entry.task : null;
+    }
+
+    @Override
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return queue.remainingCapacity();
+    }
+
+    @Override
+    public Iterator<Runnable> iterator() {
+        final Iterator<Entry> iterator = queue.iterator();
+        return new Iterator<Runnable>() {
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Runnable next() {
+                return iterator.next().task;
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+            }
+
+        };
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> tasks) {
+        return drainTo(tasks, Integer.MAX_VALUE);
+    }
+
+    // Drained tasks are not run by the executor: they're never dropped
+    @Override
+    public int drainTo(Collection<? super Runnable> tasks, int maxElements) {
+        int count = 0;
+        Entry entry;
+        while (count < maxElements && (entry = queue.poll()) != null) {
+            tasks.add(entry.task);
+            count++;
+        }
+        return count;
+    }
+
+    private static final class Entry {
+
+        private final Runnable task;
+
+        private final long enqueueTime = System.nanoTime();
+
+        Entry(Runnable task) {
+            this.task = task;
+        }
+
+    }
+
+}
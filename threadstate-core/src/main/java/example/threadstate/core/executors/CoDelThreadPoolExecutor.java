@@ -0,0 +1,50 @@
+package example.threadstate.core.executors;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Fixed thread pool on a CoDel queue: futures of submitted tasks dropped by the queue complete exceptionally
+// with a RejectedExecutionException
+public class CoDelThreadPoolExecutor extends ThreadPoolExecutor {
+
+    public CoDelThreadPoolExecutor(int poolSize, long target, long interval, TimeUnit unit, ThreadFactory threadFactory) {
+        super(poolSize, poolSize, 0, TimeUnit.MILLISECONDS, new CoDelBlockingQueue(target, interval, unit), threadFactory);
+    }
+
+    public boolean isDropping() {
+        return ((CoDelBlockingQueue) getQueue()).isDropping();
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+        return new SheddableFutureTask<>(runnable, value);
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+        return new SheddableFutureTask<>(callable);
+    }
+
+    private static final class SheddableFutureTask<T> extends FutureTask<T> implements Sheddable {
+
+        SheddableFutureTask(Callable<T> callable) {
+            super(callable);
+        }
+
+        SheddableFutureTask(Runnable runnable, T result) {
+            super(runnable, result);
+        }
+
+        @Override
+        public void shed(RejectedExecutionException exception) {
+            setException(exception);
+        }
+
+    }
+
+}
@@ -0,0 +1,116 @@
+package example.threadstate.core.executors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+
+// Tasks of composed wrappers: only the outer task is submitted, so submission notifications are forwarded to the
+// inner task, which the outer wrapper may not know about
+final class ComposedTasks {
+
+    private ComposedTasks() {
+    }
+
+    static Runnable runnable(Runnable outer, Runnable inner) {
+        if (outer == inner || !(inner instanceof SubmissionAware)) {
+            return outer;
+        }
+        return new ComposedRunnable(outer, (SubmissionAware) inner);
+    }
+
+    static <T> Callable<T> callable(Callable<T> outer, Callable<T> inner) {
+        if (outer == inner || !(inner instanceof SubmissionAware)) {
+            return outer;
+        }
+        return new ComposedCallable<>(outer, (SubmissionAware) inner);
+    }
+
+    static List<Runnable> runnables(List<Runnable> outers, List<Runnable> inners) {
+        final List<Runnable> composed = new ArrayList<>(outers.size());
+        for (int i = 0; i < outers.size(); i++) {
+            composed.add(runnable(outers.get(i), inners.get(i)));
+        }
+        return composed;
+    }
+
+    static <T> List<Callable<T>> callables(List<Callable<T>> outers, List<Callable<T>> inners) {
+        final List<Callable<T>> composed = new ArrayList<>(outers.size());
+        for (int i = 0; i < outers.size(); i++) {
+            composed.add(callable(outers.get(i), inners.get(i)));
+        }
+        return composed;
+    }
+
+    private static void beforeSubmit(Object outer, SubmissionAware inner) {
+        DelegatedExecutor.beforeSubmit(outer);
+        inner.beforeSubmit();
+    }
+
+    private static void afterSubmit(Object outer, SubmissionAware inner) {
+        inner.afterSubmit();
+        DelegatedExecutor.afterSubmit(outer);
+    }
+
+    private static final class ComposedRunnable implements Runnable, SubmissionAware, Sheddable {
+
+        private final Runnable outer;
+
+        private final SubmissionAware inner;
+
+        ComposedRunnable(Runnable outer, SubmissionAware inner) {
+            this.outer = outer;
+            this.inner = inner;
+        }
+
+        @Override
+        public void run() {
+            outer.run();
+        }
+
+        @Override
+        public void beforeSubmit() {
+            ComposedTasks.beforeSubmit(outer, inner);
+        }
+
+        @Override
+        public void afterSubmit() {
+            ComposedTasks.afterSubmit(outer, inner);
+        }
+
+        @Override
+        public void shed(RejectedExecutionException exception) {
+            Sheddable.shed(outer, exception);
+        }
+
+    }
+
+    private static final class ComposedCallable<T> implements Callable<T>, SubmissionAware {
+
+        private final Callable<T> outer;
+
+        private final SubmissionAware inner;
+
+        ComposedCallable(Callable<T> outer, SubmissionAware inner) {
+            this.outer = outer;
+            this.inner = inner;
+        }
+
+        @Override
+        public T call() throws Exception {
+            return outer.call();
+        }
+
+        @Override
+        public void beforeSubmit() {
+            ComposedTasks.beforeSubmit(outer, inner);
+        }
+
+        @Override
+        public void afterSubmit() {
+            ComposedTasks.afterSubmit(outer, inner);
+        }
+
+    }
+
+}
@@ -1,8 +1,8 @@
 package example.threadstate.core.executors;
 
-import java.util.concurrent.Callable;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 
 public class DelegatedExecutor implements Executor {
 
@@ -17,19 +17,68 @@ public class DelegatedExecutor implements Executor {
 
     @Override
     public void execute(Runnable command) {
-        delegate.execute(wrap(command));
+        final Runnable wrapped = wrap(command);
+        beforeSubmit(wrapped);
+        try {
+            delegate.execute(wrapped);
+        } finally {
+            afterSubmit(wrapped);
+        }
     }
 
-    protected final Runnable wrap(Runnable runnable) {
-        final Callable<Object> callable = taskWrapper.wrap(Executors.callable(runnable));
-        return () -> {
-            try {
-                callable.call();
-            } catch (final Exception e) {
-                // TODO Replace with another exception?
-                throw new RuntimeException(e);
+    // Returns the executor of the given type this one delegates to, e.g. to read the metrics of a wrapped executor
+    public <T> T unwrap(Class<T> type) {
+        if (type.isInstance(delegate)) {
+            return type.cast(delegate);
+        }
+        if (delegate instanceof DelegatedExecutor) {
+            return ((DelegatedExecutor) delegate).unwrap(type);
+        }
+        throw new IllegalArgumentException("Not delegating to a " + type.getName());
+    }
+
+    public void executeAll(Collection<? extends Runnable> commands) {
+        final List<Runnable> wrapped = wrapManyRunnables(commands);
+        beforeSubmitMany(wrapped);
+        try {
+            for (final Runnable command : wrapped) {
+                delegate.execute(command);
             }
-        };
+        } finally {
+            afterSubmitMany(wrapped);
+        }
+    }
+
+    protected final Runnable wrap(Runnable runnable) {
+        return taskWrapper.wrapRunnable(runnable);
+    }
+
+    protected final List<Runnable> wrapManyRunnables(Collection<? extends Runnable> runnables) {
+        return taskWrapper.wrapAllRunnables(runnables);
+    }
+
+    protected static void beforeSubmit(Object task) {
+        if (task instanceof SubmissionAware) {
+            ((SubmissionAware) task).beforeSubmit();
+        }
+    }
+
+    protected static void afterSubmit(Object task) {
+        if (task instanceof SubmissionAware) {
+            ((SubmissionAware) task).afterSubmit();
+        }
+    }
+
+    protected static void beforeSubmitMany(Collection<?> tasks) {
+        for (final Object task : tasks) {
+            beforeSubmit(task);
+        }
+    }
+
+    protected static void afterSubmitMany(Collection<?> tasks) {
+        for (final Object task : tasks) {
+            afterSubmit(task);
+        }
     }
 
 }
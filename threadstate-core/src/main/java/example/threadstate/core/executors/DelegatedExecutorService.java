@@ -1,14 +1,15 @@
 package example.threadstate.core.executors;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import java.util.stream.Collectors;
 
 public class DelegatedExecutorService extends DelegatedExecutor implements ExecutorService {
 
@@ -51,52 +52,96 @@ public class DelegatedExecutorService extends DelegatedExecutor implements Execu
 
     @Override
     public <T> Future<T> submit(Callable<T> task) {
-        return delegate.submit(wrap(task));
+        final Callable<T> wrapped = wrap(task);
+        beforeSubmit(wrapped);
+        try {
+            return delegate.submit(wrapped);
+        } finally {
+            afterSubmit(wrapped);
+        }
     }
 
 
+    // Submitted as a callable: wrappers failing a task, e.g. on an exceeded deadline, then fail its future
     @Override
     public <T> Future<T> submit(Runnable task, T result) {
-        return delegate.submit(wrap(task), result);
+        return submit(Executors.callable(task, result));
     }
 
 
     @Override
     public Future<?> submit(Runnable task) {
-        return delegate.submit(wrap(task));
+        return submit(task, null);
+    }
+
+
+    public <T> List<Future<T>> submitAll(Collection<? extends Callable<T>> tasks) {
+        final List<Callable<T>> wrapped = wrapMany(tasks);
+        final List<Future<T>> futures = new ArrayList<>(wrapped.size());
+        beforeSubmitMany(wrapped);
+        try {
+            for (final Callable<T> task : wrapped) {
+                futures.add(delegate.submit(task));
+            }
+        } finally {
+            afterSubmitMany(wrapped);
+        }
+        return futures;
     }
 
 
     @Override
     public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
-        return delegate.invokeAll(wrapMany(tasks));
+        final List<Callable<T>> wrapped = wrapMany(tasks);
+        beforeSubmitMany(wrapped);
+        try {
+            return delegate.invokeAll(wrapped);
+        } finally {
+            afterSubmitMany(wrapped);
+        }
     }
 
 
     @Override
     public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException {
-        return delegate.invokeAll(wrapMany(tasks), timeout, unit);
+        final List<Callable<T>> wrapped = wrapMany(tasks);
+        beforeSubmitMany(wrapped);
+        try {
+            return delegate.invokeAll(wrapped, timeout, unit);
+        } finally {
+            afterSubmitMany(wrapped);
+        }
     }
 
 
     @Override
     public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
-        return delegate.invokeAny(wrapMany(tasks));
+        final List<Callable<T>> wrapped = wrapMany(tasks);
+        beforeSubmitMany(wrapped);
+        try {
+            return delegate.invokeAny(wrapped);
+        } finally {
+            afterSubmitMany(wrapped);
+        }
     }
 
     @Override
     public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
-        return delegate.invokeAny(wrapMany(tasks), timeout, unit);
+        final List<Callable<T>> wrapped = wrapMany(tasks);
+        beforeSubmitMany(wrapped);
+        try {
+            return delegate.invokeAny(wrapped, timeout, unit);
+        } finally {
+            afterSubmitMany(wrapped);
+        }
     }
 
     protected final <T> Callable<T> wrap(Callable<T> callable) {
         return taskWrapper.wrap(callable);
     }
 
-    protected final <T> Collection<? extends Callable<T>> wrapMany(Collection<? extends Callable<T>> callables) {
-        return callables.stream()
-                .map(this::wrap)
-                .collect(Collectors.toList());
+    protected final <T> List<Callable<T>> wrapMany(Collection<? extends Callable<T>> callables) {
+        return taskWrapper.wrapAll(callables);
     }
 
 }
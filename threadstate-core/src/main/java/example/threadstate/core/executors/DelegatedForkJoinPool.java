@@ -0,0 +1,228 @@
+package example.threadstate.core.executors;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Keeps the ForkJoinPool API of the delegate. Tasks submitted from outside the pool are run with the state of the
+// submitting thread, which is propagated to forked ScopedRecursiveTask and ScopedRecursiveAction subtasks.
+// This pool itself is shut down from the start and never runs any task. Public methods are forwarded to the delegate,
+// but protected ones, such as pollSubmission() and drainTasksTo(), can't reach it: they only see the empty queues of
+// this pool, so subclasses relying on them must call the delegate instead.
+public class DelegatedForkJoinPool extends ForkJoinPool {
+
+    private final ForkJoinPool delegate;
+
+    private final TaskWrapper taskWrapper;
+
+    public DelegatedForkJoinPool(ForkJoinPool delegate, TaskWrapper taskWrapper) {
+        super(1);
+        // This pool only forwards to the delegate, it never starts any worker
+        super.shutdown();
+        this.delegate = delegate;
+        this.taskWrapper = taskWrapper;
+    }
+
+    @Override
+    public <T> T invoke(ForkJoinTask<T> task) {
+        execute(task);
+        return task.join();
+    }
+
+    @Override
+    public void execute(ForkJoinTask<?> task) {
+        delegate.execute(scoped(task));
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        final ForkJoinTask<?> adapted = task instanceof ForkJoinTask ? (ForkJoinTask<?>) task : ForkJoinTask.adapt(task);
+        execute(adapted);
+    }
+
+    @Override
+    public <T> ForkJoinTask<T> submit(ForkJoinTask<T> task) {
+        execute(task);
+        return task;
+    }
+
+    @Override
+    public <T> ForkJoinTask<T> submit(Callable<T> task) {
+        return submit(ForkJoinTask.adapt(task));
+    }
+
+    @Override
+    public <T> ForkJoinTask<T> submit(Runnable task, T result) {
+        return submit(ForkJoinTask.adapt(task, result));
+    }
+
+    @Override
+    public ForkJoinTask<?> submit(Runnable task) {
+        final ForkJoinTask<?> adapted = task instanceof ForkJoinTask ? (ForkJoinTask<?>) task : ForkJoinTask.adapt(task);
+        execute(adapted);
+        return adapted;
+    }
+
+    @Override
+    public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) {
+        // The submitting thread state doesn't change between tasks: bind it once
+        final TaskWrapper scope = taskWrapper.bind();
+        final List<ForkJoinTask<T>> submitted = new ArrayList<>(tasks.size());
+        for (final Callable<T> task : tasks) {
+            final ForkJoinTask<T> adapted = ForkJoinTask.adapt(task);
+            delegate.execute(new ScopedRootTask(scope, adapted));
+            submitted.add(adapted);
+        }
+
+        final List<Future<T>> futures = new ArrayList<>(submitted.size());
+        for (final ForkJoinTask<T> task : submitted) {
+            task.quietlyJoin();
+            futures.add(task);
+        }
+        return futures;
+    }
+
+    private ForkJoinTask<?> scoped(ForkJoinTask<?> task) {
+        return new ScopedRootTask(taskWrapper.bind(), task);
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean isTerminating() {
+        return delegate.isTerminating();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    public boolean awaitQuiescence(long timeout, TimeUnit unit) {
+        return delegate.awaitQuiescence(timeout, unit);
+    }
+
+    @Override
+    public ForkJoinWorkerThreadFactory getFactory() {
+        return delegate.getFactory();
+    }
+
+    @Override
+    public Thread.UncaughtExceptionHandler getUncaughtExceptionHandler() {
+        return delegate.getUncaughtExceptionHandler();
+    }
+
+    @Override
+    public int getParallelism() {
+        return delegate.getParallelism();
+    }
+
+    @Override
+    public int getPoolSize() {
+        return delegate.getPoolSize();
+    }
+
+    @Override
+    public boolean getAsyncMode() {
+        return delegate.getAsyncMode();
+    }
+
+    @Override
+    public int getRunningThreadCount() {
+        return delegate.getRunningThreadCount();
+    }
+
+    @Override
+    public int getActiveThreadCount() {
+        return delegate.getActiveThreadCount();
+    }
+
+    @Override
+    public boolean isQuiescent() {
+        return delegate.isQuiescent();
+    }
+
+    @Override
+    public long getStealCount() {
+        return delegate.getStealCount();
+    }
+
+    @Override
+    public long getQueuedTaskCount() {
+        return delegate.getQueuedTaskCount();
+    }
+
+    @Override
+    public int getQueuedSubmissionCount() {
+        return delegate.getQueuedSubmissionCount();
+    }
+
+    @Override
+    public boolean hasQueuedSubmissions() {
+        return delegate.hasQueuedSubmissions();
+    }
+
+    @Override
+    public String toString() {
+        return "DelegatedForkJoinPool(" + delegate + ")";
+    }
+
+    // Runs a submitted task in the scope of the submitting thread. Its result and exception stay in the task itself.
+    private static final class ScopedRootTask extends ForkJoinTask<Void> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final TaskWrapper scope;
+
+        private final ForkJoinTask<?> task;
+
+        ScopedRootTask(TaskWrapper scope, ForkJoinTask<?> task) {
+            this.scope = scope;
+            this.task = task;
+        }
+
+        @Override
+        public Void getRawResult() {
+            return null;
+        }
+
+        @Override
+        protected void setRawResult(Void value) {
+        }
+
+        @Override
+        protected boolean exec() {
+            ForkJoinScope.enter(scope, () -> {
+                task.quietlyInvoke();
+                return null;
+            });
+            return true;
+        }
+
+    }
+
+}
@@ -17,25 +17,49 @@ public class DelegatedScheduledExecutorService extends DelegatedExecutorService
 
     @Override
     public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
-        return delegate.schedule(wrap(command), delay, unit);
+        final Runnable wrapped = wrap(command);
+        beforeSubmit(wrapped);
+        try {
+            return delegate.schedule(wrapped, delay, unit);
+        } finally {
+            afterSubmit(wrapped);
+        }
     }
 
 
     @Override
     public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
-        return delegate.schedule(wrap(callable), delay, unit);
+        final Callable<V> wrapped = wrap(callable);
+        beforeSubmit(wrapped);
+        try {
+            return delegate.schedule(wrapped, delay, unit);
+        } finally {
+            afterSubmit(wrapped);
+        }
     }
 
 
     @Override
     public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
-        return delegate.scheduleAtFixedRate(wrap(command), initialDelay, period, unit);
+        final Runnable wrapped = wrap(command);
+        beforeSubmit(wrapped);
+        try {
+            return delegate.scheduleAtFixedRate(wrapped, initialDelay, period, unit);
+        } finally {
+            afterSubmit(wrapped);
+        }
     }
 
 
     @Override
     public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
-        return delegate.scheduleWithFixedDelay(wrap(command), initialDelay, delay, unit);
+        final Runnable wrapped = wrap(command);
+        beforeSubmit(wrapped);
+        try {
+            return delegate.scheduleWithFixedDelay(wrapped, initialDelay, delay, unit);
+        } finally {
+            afterSubmit(wrapped);
+        }
     }
 
 }
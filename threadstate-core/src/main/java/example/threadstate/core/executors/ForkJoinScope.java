@@ -0,0 +1,41 @@
+package example.threadstate.core.executors;
+
+import java.util.concurrent.Callable;
+
+// Bound task wrapper of the fork/join computation run by the current thread
+final class ForkJoinScope {
+
+    private static final ThreadLocal<TaskWrapper> CURRENT = new ThreadLocal<>();
+
+    private ForkJoinScope() {
+    }
+
+    static TaskWrapper current() {
+        return CURRENT.get();
+    }
+
+    // Only called when the thread is outside of the scope: the task was stolen by another worker
+    static <T> T enter(TaskWrapper scope, Callable<T> callable) {
+        try {
+            return scope.wrap(() -> {
+                final TaskWrapper previous = CURRENT.get();
+                CURRENT.set(scope);
+                try {
+                    return callable.call();
+                } finally {
+                    if (previous == null) {
+                        CURRENT.remove();
+                    } else {
+                        CURRENT.set(previous);
+                    }
+                }
+            }).call();
+        } catch (final RuntimeException e) {
+            throw e;
+        } catch (final Exception e) {
+            // Only thrown by the wrapper itself, computations can't throw checked exceptions
+            throw new RuntimeException(e);
+        }
+    }
+
+}
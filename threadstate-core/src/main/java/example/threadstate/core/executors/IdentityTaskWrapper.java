@@ -0,0 +1,27 @@
+package example.threadstate.core.executors;
+
+import java.util.concurrent.Callable;
+
+final class IdentityTaskWrapper implements TaskWrapper {
+
+    static final IdentityTaskWrapper INSTANCE = new IdentityTaskWrapper();
+
+    private IdentityTaskWrapper() {
+    }
+
+    @Override
+    public <T> Callable<T> wrap(Callable<T> callable) {
+        return callable;
+    }
+
+    @Override
+    public Runnable wrapRunnable(Runnable runnable) {
+        return runnable;
+    }
+
+    @Override
+    public TaskWrapper andThen(TaskWrapper other) {
+        return other;
+    }
+
+}
@@ -0,0 +1,68 @@
+package example.threadstate.core.executors;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Bounded lock-free queue for many producers and a single consumer. Producers claim a slot with a CAS on the tail,
+// then publish the element in it: the consumer only sees an element once it's published.
+final class MpscRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> buffer;
+
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    // Only written by the consumer
+    private final AtomicLong head = new AtomicLong();
+
+    MpscRingBuffer(int capacity) {
+        final int size = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    boolean offer(E element) {
+        long index;
+        do {
+            index = tail.get();
+            if (index - head.get() > mask) {
+                return false;
+            }
+        } while (!tail.compareAndSet(index, index + 1));
+
+        // Volatile write, so that a consumer about to park either sees it or is seen as parked by the producer
+        buffer.set((int) index & mask, element);
+        return true;
+    }
+
+    // Consumer only. Returns null when empty, or when the next claimed slot is not published yet.
+    E poll() {
+        final long index = head.get();
+        final int offset = (int) index & mask;
+        final E element = buffer.get(offset);
+        if (element == null) {
+            return null;
+        }
+        buffer.lazySet(offset, null);
+        head.lazySet(index + 1);
+        return element;
+    }
+
+    // Consumer only
+    int drainTo(List<? super E> elements) {
+        int count = 0;
+        E element;
+        while ((element = poll()) != null) {
+            elements.add(element);
+            count++;
+        }
+        return count;
+    }
+
+    boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+
+}
@@ -0,0 +1,379 @@
+package example.threadstate.core.executors;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+
+// Work queue with one lane per priority class, the lane of a task being chosen on offer by the lane selector.
+// Lanes are dequeued with a smooth weighted round robin over the non empty lanes: with weights 8 and 1, a background
+// fan-out in lane 1 takes at most one worker out of nine from lane 0, while an idle lane 0 leaves every worker to
+// lane 1. Tracks the depth of every lane, and the time tasks waited in it.
+public class PriorityLaneBlockingQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+
+    private final ToIntFunction<Runnable> laneSelector;
+
+    private final int[] weights;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notEmpty = lock.newCondition();
+
+    // Guarded by lock
+    private final ArrayDeque<Entry>[] lanes;
+
+    // Guarded by lock: weighted round robin credits of the lanes
+    private final int[] credits;
+
+    // Guarded by lock
+    private final LaneStats[] stats;
+
+    // Guarded by lock
+    private int size;
+
+    private volatile WaitTimeListener waitTimeListener;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public PriorityLaneBlockingQueue(int[] weights, ToIntFunction<Runnable> laneSelector) {
+        if (weights.length == 0) {
+            throw new IllegalArgumentException("At least one lane is required");
+        }
+        for (final int weight : weights) {
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Lane weights must be positive");
+            }
+        }
+        this.laneSelector = laneSelector;
+        this.weights = weights.clone();
+        this.lanes = new ArrayDeque[weights.length];
+        this.credits = new int[weights.length];
+        this.stats = new LaneStats[weights.length];
+        for (int lane = 0; lane < weights.length; lane++) {
+            lanes[lane] = new ArrayDeque<>();
+            stats[lane] = new LaneStats();
+        }
+    }
+
+    // Notified on the worker thread of every dequeued task, e.g. to record wait time percentiles per lane
+    public void setWaitTimeListener(WaitTimeListener waitTimeListener) {
+        this.waitTimeListener = waitTimeListener;
+    }
+
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    public int getQueueDepth(int lane) {
+        lock.lock();
+        try {
+            return lanes[lane].size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getDequeuedCount(int lane) {
+        lock.lock();
+        try {
+            return stats[lane].dequeued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getTotalWaitTime(int lane, TimeUnit unit) {
+        lock.lock();
+        try {
+            return unit.convert(stats[lane].totalWaitNanos, TimeUnit.NANOSECONDS);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getMaxWaitTime(int lane, TimeUnit unit) {
+        lock.lock();
+        try {
+            return unit.convert(stats[lane].maxWaitNanos, TimeUnit.NANOSECONDS);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(Runnable task) {
+        final int lane = laneSelector.applyAsInt(task);
+        if (lane < 0 || lane >= lanes.length) {
+            throw new IllegalArgumentException("Invalid lane " + lane + " for " + lanes.length + " lanes");
+        }
+
+        final Entry entry = new Entry(task, lane);
+        lock.lock();
+        try {
+            lanes[lane].addLast(entry);
+            size++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+
+    // Lanes are unbounded
+    @Override
+    public boolean offer(Runnable task, long timeout, TimeUnit unit) {
+        return offer(task);
+    }
+
+    @Override
+    public void put(Runnable task) {
+        offer(task);
+    }
+
+    @Override
+    public Runnable poll() {
+        final Entry entry;
+        lock.lock();
+        try {
+            entry = dequeue();
+        } finally {
+            lock.unlock();
+        }
+        return dequeued(entry);
+    }
+
+    @Override
+    public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long remainingNanos = unit.toNanos(timeout);
+        final Entry entry;
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                if (remainingNanos <= 0) {
+                    return null;
+                }
+                remainingNanos = notEmpty.awaitNanos(remainingNanos);
+            }
+            entry = dequeue();
+        } finally {
+            lock.unlock();
+        }
+        return dequeued(entry);
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+        final Entry entry;
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                notEmpty.await();
+            }
+            entry = dequeue();
+        } finally {
+            lock.unlock();
+        }
+        return dequeued(entry);
+    }
+
+    // Guarded by lock
+    private Entry dequeue() {
+        if (size == 0) {
+            return null;
+        }
+
+        int totalWeight = 0;
+        int selected = -1;
+        for (int lane = 0; lane < lanes.length; lane++) {
+            if (lanes[lane].isEmpty()) {
+                // Idle lanes don't bank credits, they would starve the others once busy again
+                credits[lane] = 0;
+                continue;
+            }
+            totalWeight += weights[lane];
+            credits[lane] += weights[lane];
+            if (selected < 0 || credits[lane] > credits[selected]) {
+                selected = lane;
+            }
+        }
+        credits[selected] -= totalWeight;
+
+        final Entry entry = lanes[selected].pollFirst();
+        size--;
+
+        final long waitNanos = System.nanoTime() - entry.enqueueTime;
+        final LaneStats laneStats = stats[selected];
+        laneStats.dequeued++;
+        laneStats.totalWaitNanos += waitNanos;
+        laneStats.maxWaitNanos = Math.max(laneStats.maxWaitNanos, waitNanos);
+        entry.waitNanos = waitNanos;
+        return entry;
+    }
+
+    private Runnable dequeued(Entry entry) {
+        if (entry == null) {
+            return null;
+        }
+        final WaitTimeListener listener = waitTimeListener;
+        if (listener != null) {
+            listener.onDequeue(entry.lane, entry.waitNanos);
+        }
+        return entry.task;
+    }
+
+    @Override
+    public Runnable peek() {
+        lock.lock();
+        try {
+            for (final ArrayDeque<Entry> lane : lanes) {
+                final Entry entry = lane.peekFirst();
+                if (entry != null) {
+                    return entry.task;
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Object task) {
+        lock.lock();
+        try {
+            for (final ArrayDeque<Entry> lane : lanes) {
+                final Iterator<Entry> iterator = lane.iterator();
+                while (iterator.hasNext()) {
+                    if (iterator.next().task.equals(task)) {
+                        iterator.remove();
+                        size--;
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Integer.MAX_VALUE;
+    }
+
+    // Weakly consistent: iterates over a snapshot of the lanes, in lane order
+    @Override
+    public Iterator<Runnable> iterator() {
+        final List<Runnable> tasks = new ArrayList<>();
+        lock.lock();
+        try {
+            for (final ArrayDeque<Entry> lane : lanes) {
+                for (final Entry entry : lane) {
+                    tasks.add(entry.task);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        final Iterator<Runnable> iterator = tasks.iterator();
+        return new Iterator<Runnable>() {
+
+            private Runnable last;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Runnable next() {
+                last = iterator.next();
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                PriorityLaneBlockingQueue.this.remove(last);
+            }
+
+        };
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> tasks) {
+        return drainTo(tasks, Integer.MAX_VALUE);
+    }
+
+    // Drained tasks are not run by the executor: they're not accounted in the wait time
+    @Override
+    public int drainTo(Collection<? super Runnable> tasks, int maxElements) {
+        lock.lock();
+        try {
+            int count = 0;
+            for (final ArrayDeque<Entry> lane : lanes) {
+                Entry entry;
+                while (count < maxElements && (entry = lane.pollFirst()) != null) {
+                    tasks.add(entry.task);
+                    size--;
+                    count++;
+                }
+            }
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @FunctionalInterface
+    public interface WaitTimeListener {
+
+        void onDequeue(int lane, long waitNanos);
+
+    }
+
+    private static final class LaneStats {
+
+        private long dequeued;
+
+        private long totalWaitNanos;
+
+        private long maxWaitNanos;
+
+    }
+
+    private static final class Entry {
+
+        private final Runnable task;
+
+        private final int lane;
+
+        private final long enqueueTime = System.nanoTime();
+
+        private long waitNanos;
+
+        Entry(Runnable task, int lane) {
+            this.task = task;
+            this.lane = lane;
+        }
+
+    }
+
+}
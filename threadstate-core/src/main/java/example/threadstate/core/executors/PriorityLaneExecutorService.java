@@ -0,0 +1,115 @@
+package example.threadstate.core.executors;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+// Fixed thread pool sharing its workers between priority lanes, see PriorityLaneBlockingQueue. The lane of a task
+// is the one given on submission, or else the one returned by the lane supplier on the submitting thread,
+// e.g. read from the thread state restored by a DelegatedExecutorService. Behind such a wrapper, a single submission
+// is given its lane with PriorityLane.supplyIn(), which the lane supplier then reads.
+public class PriorityLaneExecutorService extends ThreadPoolExecutor {
+
+    public PriorityLaneExecutorService(int poolSize, int[] weights, IntSupplier laneSupplier, ThreadFactory threadFactory) {
+        super(
+            poolSize,
+            poolSize,
+            0,
+            TimeUnit.MILLISECONDS,
+            new PriorityLaneBlockingQueue(weights, task -> laneOf(task, laneSupplier)),
+            threadFactory
+        );
+        // Every task goes through the lanes, instead of the first ones being run by new workers
+        prestartAllCoreThreads();
+    }
+
+    private static int laneOf(Runnable task, IntSupplier laneSupplier) {
+        return task instanceof Laned ? ((Laned) task).lane() : laneSupplier.getAsInt();
+    }
+
+    public PriorityLaneBlockingQueue getLanes() {
+        return (PriorityLaneBlockingQueue) getQueue();
+    }
+
+    public void execute(int lane, Runnable command) {
+        execute(new LaneRunnable(lane, command));
+    }
+
+    public <T> Future<T> submit(int lane, Callable<T> task) {
+        final LaneTask<T> future = new LaneTask<>(lane, task);
+        execute(future);
+        return future;
+    }
+
+    public Future<?> submit(int lane, Runnable task) {
+        final LaneTask<Void> future = new LaneTask<>(lane, task, null);
+        execute(future);
+        return future;
+    }
+
+    private interface Laned {
+
+        int lane();
+
+    }
+
+    private static final class LaneRunnable implements Runnable, Laned, Sheddable {
+
+        private final int lane;
+
+        private final Runnable runnable;
+
+        LaneRunnable(int lane, Runnable runnable) {
+            this.lane = lane;
+            this.runnable = runnable;
+        }
+
+        @Override
+        public int lane() {
+            return lane;
+        }
+
+        @Override
+        public void run() {
+            runnable.run();
+        }
+
+        @Override
+        public void shed(RejectedExecutionException exception) {
+            Sheddable.shed(runnable, exception);
+        }
+
+    }
+
+    private static final class LaneTask<T> extends FutureTask<T> implements Laned, Sheddable {
+
+        private final int lane;
+
+        LaneTask(int lane, Callable<T> callable) {
+            super(callable);
+            this.lane = lane;
+        }
+
+        LaneTask(int lane, Runnable runnable, T result) {
+            super(runnable, result);
+            this.lane = lane;
+        }
+
+        @Override
+        public int lane() {
+            return lane;
+        }
+
+        @Override
+        public void shed(RejectedExecutionException exception) {
+            setException(exception);
+        }
+
+    }
+
+}
@@ -0,0 +1,233 @@
+package example.threadstate.core.executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// Fixed pool of workers, each one consuming its own preallocated ring buffer. Submitting threads pick a worker at
+// random and try the others when its buffer is full; tasks are rejected when all buffers are full.
+// Idle workers spin, then yield, then park until a task is submitted to them.
+public class RingBufferExecutorService extends AbstractExecutorService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RingBufferExecutorService.class);
+
+    private static final int BATCH_SIZE = 64;
+
+    private static final int SPIN_TRIES = 100;
+
+    private static final int YIELD_TRIES = 10;
+
+    // States of the single consumer of a buffer
+    private static final int IDLE = 0;
+
+    private static final int POLLING = 1;
+
+    private static final int DRAINED = 2;
+
+    private final Worker[] workers;
+
+    private final CountDownLatch terminated;
+
+    private volatile boolean shutdown;
+
+    public RingBufferExecutorService(int workerCount, int capacityPerWorker, ThreadFactory threadFactory) {
+        if (workerCount < 1 || capacityPerWorker < 1) {
+            throw new IllegalArgumentException("Worker count and capacity must be positive");
+        }
+
+        this.workers = new Worker[workerCount];
+        this.terminated = new CountDownLatch(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = new Worker(capacityPerWorker);
+        }
+        for (final Worker worker : workers) {
+            worker.thread = threadFactory.newThread(worker);
+            worker.thread.start();
+        }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (command == null) {
+            throw new NullPointerException();
+        }
+
+        final int start = ThreadLocalRandom.current().nextInt(workers.length);
+        for (int i = 0; i < workers.length; i++) {
+            final Worker worker = workers[(start + i) % workers.length];
+            // Flagged before checking the shutdown, so that the worker doesn't terminate before the offer
+            worker.submitters.incrementAndGet();
+            try {
+                if (shutdown) {
+                    throw new RejectedExecutionException("Executor is shut down");
+                }
+                if (worker.buffer.offer(command)) {
+                    worker.wakeUp();
+                    return;
+                }
+            } finally {
+                worker.submitters.decrementAndGet();
+            }
+        }
+        throw new RejectedExecutionException("All worker buffers are full");
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        for (final Worker worker : workers) {
+            LockSupport.unpark(worker.thread);
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown = true;
+        final List<Runnable> remaining = new ArrayList<>();
+        for (final Worker worker : workers) {
+            worker.stopped = true;
+            worker.thread.interrupt();
+        }
+        // Buffers are drained from here, without waiting for the current tasks: this thread takes over as the single
+        // consumer once the worker is done polling, and once pending offers are done
+        for (final Worker worker : workers) {
+            if (worker.takeOverConsumer()) {
+                while (worker.submitters.get() != 0) {
+                    Thread.yield();
+                }
+                worker.buffer.drainTo(remaining);
+            }
+        }
+        return remaining;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return terminated.getCount() == 0;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return terminated.await(timeout, unit);
+    }
+
+    private final class Worker implements Runnable {
+
+        private final MpscRingBuffer<Runnable> buffer;
+
+        // The buffer has a single consumer: the worker, until shutdownNow() takes it over to drain the buffer
+        private final AtomicInteger consumer = new AtomicInteger(IDLE);
+
+        // Submitting threads which may offer tasks to the buffer
+        private final AtomicInteger submitters = new AtomicInteger();
+
+        private Thread thread;
+
+        private volatile boolean parked;
+
+        private volatile boolean stopped;
+
+        Worker(int capacity) {
+            this.buffer = new MpscRingBuffer<>(capacity);
+        }
+
+        void wakeUp() {
+            if (parked) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                int idle = 0;
+                while (!stopped) {
+                    if (drainBatch() > 0) {
+                        idle = 0;
+                    } else if (shutdown && submitters.get() == 0 && buffer.isEmpty()) {
+                        return;
+                    } else {
+                        idle = idle(idle);
+                    }
+                }
+            } finally {
+                terminated.countDown();
+            }
+        }
+
+        private int drainBatch() {
+            int count = 0;
+            Runnable task;
+            while (count < BATCH_SIZE && (task = poll()) != null) {
+                count++;
+                try {
+                    task.run();
+                } catch (final Throwable e) {
+                    // The worker is never replaced: it must survive errors as well
+                    LOGGER.error("Caught exception while running task {}", task, e);
+                }
+            }
+            return count;
+        }
+
+        private Runnable poll() {
+            if (!consumer.compareAndSet(IDLE, POLLING)) {
+                return null;
+            }
+            try {
+                return buffer.poll();
+            } finally {
+                consumer.set(IDLE);
+            }
+        }
+
+        // Returns false when the buffer was already drained by a previous call
+        boolean takeOverConsumer() {
+            for (;;) {
+                final int state = consumer.get();
+                if (state == DRAINED) {
+                    return false;
+                }
+                if (state == IDLE && consumer.compareAndSet(IDLE, DRAINED)) {
+                    return true;
+                }
+                Thread.yield();
+            }
+        }
+
+        private int idle(int idle) {
+            if (idle < SPIN_TRIES) {
+                return idle + 1;
+            }
+            if (idle < SPIN_TRIES + YIELD_TRIES) {
+                Thread.yield();
+                return idle + 1;
+            }
+
+            parked = true;
+            // Checked again after being flagged as parked, so that a task submitted meanwhile is not missed
+            if (buffer.isEmpty() && !shutdown) {
+                LockSupport.park(this);
+            }
+            parked = false;
+            return idle;
+        }
+
+    }
+
+}
@@ -0,0 +1,36 @@
+package example.threadstate.core.executors;
+
+import java.util.concurrent.ForkJoinTask;
+
+// RecursiveAction counterpart of ScopedRecursiveTask
+public abstract class ScopedRecursiveAction extends ForkJoinTask<Void> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final TaskWrapper scope = ForkJoinScope.current();
+
+    protected abstract void compute();
+
+    @Override
+    public final Void getRawResult() {
+        return null;
+    }
+
+    @Override
+    protected final void setRawResult(Void value) {
+    }
+
+    @Override
+    protected final boolean exec() {
+        if (scope == null || ForkJoinScope.current() == scope) {
+            compute();
+        } else {
+            ForkJoinScope.enter(scope, () -> {
+                compute();
+                return null;
+            });
+        }
+        return true;
+    }
+
+}
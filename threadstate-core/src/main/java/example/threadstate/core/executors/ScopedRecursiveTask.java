@@ -0,0 +1,37 @@
+package example.threadstate.core.executors;
+
+import java.util.concurrent.ForkJoinTask;
+
+// RecursiveTask propagating the state of the computation submitted to a DelegatedForkJoinPool.
+// The state is only restored when the task is stolen by another worker, not on each fork().
+public abstract class ScopedRecursiveTask<V> extends ForkJoinTask<V> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final TaskWrapper scope = ForkJoinScope.current();
+
+    private V result;
+
+    protected abstract V compute();
+
+    @Override
+    public final V getRawResult() {
+        return result;
+    }
+
+    @Override
+    protected final void setRawResult(V value) {
+        result = value;
+    }
+
+    @Override
+    protected final boolean exec() {
+        if (scope == null || ForkJoinScope.current() == scope) {
+            result = compute();
+        } else {
+            result = ForkJoinScope.enter(scope, this::compute);
+        }
+        return true;
+    }
+
+}
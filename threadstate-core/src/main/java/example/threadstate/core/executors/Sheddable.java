@@ -0,0 +1,19 @@
+package example.threadstate.core.executors;
+
+import java.util.concurrent.RejectedExecutionException;
+
+// Queued tasks notified when they're dropped by a load shedding queue, so that their callers fail fast.
+// Task wrappers forward it to the task they wrap.
+public interface Sheddable {
+
+    void shed(RejectedExecutionException exception);
+
+    static boolean shed(Object task, RejectedExecutionException exception) {
+        if (task instanceof Sheddable) {
+            ((Sheddable) task).shed(exception);
+            return true;
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,169 @@
+package example.threadstate.core.executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Runs tasks of the same key in submission order, one at a time. Keys are hashed onto serial lanes, which are
+// drained by the workers of a shared executor. Consecutive tasks of the same key run nested in the wrapper of the
+// first one, so that restoring their state is skipped when it is the same.
+public class StripedExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StripedExecutor.class);
+
+    private final Executor delegate;
+
+    private final TaskWrapper taskWrapper;
+
+    private final int maxBatchSize;
+
+    private final Lane[] lanes;
+
+    public StripedExecutor(Executor delegate, TaskWrapper taskWrapper, int stripes) {
+        this(delegate, taskWrapper, stripes, 64);
+    }
+
+    public StripedExecutor(Executor delegate, TaskWrapper taskWrapper, int stripes, int maxBatchSize) {
+        if (stripes < 1 || maxBatchSize < 1) {
+            throw new IllegalArgumentException("Stripes and max batch size must be positive");
+        }
+        this.delegate = delegate;
+        this.taskWrapper = taskWrapper;
+        this.maxBatchSize = maxBatchSize;
+        this.lanes = new Lane[stripes];
+        for (int i = 0; i < stripes; i++) {
+            lanes[i] = new Lane();
+        }
+    }
+
+    public void execute(Object key, Runnable command) {
+        final Lane lane = lanes[laneIndex(key)];
+        final Entry entry = new Entry(lane, key, command);
+        entry.wrapped = taskWrapper.wrapRunnable(entry);
+
+        DelegatedExecutor.beforeSubmit(entry.wrapped);
+        try {
+            lane.queue.add(entry);
+            lane.schedule();
+        } finally {
+            DelegatedExecutor.afterSubmit(entry.wrapped);
+        }
+    }
+
+    public Executor forKey(Object key) {
+        return command -> execute(key, command);
+    }
+
+    private int laneIndex(Object key) {
+        final int hash = Objects.hashCode(key);
+        return Math.floorMod(hash ^ (hash >>> 16), lanes.length);
+    }
+
+    private final class Lane implements Runnable {
+
+        private final Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        // Only accessed by the thread draining the lane
+        private int remaining;
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    delegate.execute(this);
+                } catch (final RuntimeException e) {
+                    scheduled.set(false);
+                    throw e;
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            remaining = maxBatchSize;
+            try {
+                while (remaining > 0) {
+                    final Entry entry = queue.poll();
+                    if (entry == null) {
+                        break;
+                    }
+                    remaining--;
+                    entry.wrapped.run();
+                }
+            } finally {
+                scheduled.set(false);
+
+                // Tasks added after the last poll, or left behind by the batch limit or a failing wrapper, so that
+                // the worker is given back
+                if (!queue.isEmpty()) {
+                    reschedule();
+                }
+            }
+        }
+
+        // Left tasks are still run once the next task of the lane schedules it again
+        private void reschedule() {
+            try {
+                schedule();
+            } catch (final RuntimeException e) {
+                LOGGER.error("Caught exception while rescheduling lane", e);
+            }
+        }
+
+        // Runs the following tasks of the same key inside the wrapper of the current one
+        void runFollowing(Object key) {
+            while (remaining > 0) {
+                final Entry next = queue.peek();
+                if (next == null || !Objects.equals(next.key, key)) {
+                    return;
+                }
+                // Single consumer: the peeked entry is still the head
+                queue.poll();
+                remaining--;
+                next.following = true;
+                next.wrapped.run();
+            }
+        }
+
+    }
+
+    private static final class Entry implements Runnable {
+
+        private final Lane lane;
+
+        private final Object key;
+
+        private final Runnable command;
+
+        private Runnable wrapped;
+
+        private boolean following;
+
+        Entry(Lane lane, Object key, Runnable command) {
+            this.lane = lane;
+            this.key = key;
+            this.command = command;
+        }
+
+        @Override
+        public void run() {
+            try {
+                command.run();
+            } catch (final RuntimeException e) {
+                LOGGER.error("Caught exception while running task {} of key {}", command, key, e);
+            }
+
+            if (!following) {
+                lane.runFollowing(key);
+            }
+        }
+
+    }
+
+}
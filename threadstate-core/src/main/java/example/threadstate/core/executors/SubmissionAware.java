@@ -0,0 +1,10 @@
+package example.threadstate.core.executors;
+
+// Wrapped tasks notified around their submission: between both calls, the task may be run inline by the submitting thread
+public interface SubmissionAware {
+
+    void beforeSubmit();
+
+    void afterSubmit();
+
+}
@@ -0,0 +1,27 @@
+package example.threadstate.core.executors;
+
+// Hooks run around a task by a TaskPipeline
+public interface TaskInterceptor {
+
+    // Called on the submitting thread, the result is handed to before() and after()
+    default Object capture() {
+        return null;
+    }
+
+    // Called when a captured value is shared by tasks submitted together, so that each task gets its own
+    default Object copy(Object captured) {
+        return captured;
+    }
+
+    // Returns the value handed back to after(), which is only called when before() succeeded
+    Object before(Object captured) throws Exception;
+
+    void after(Object captured, Object token);
+
+    // Interceptors which only restore the submitting thread state are skipped when the submitting thread
+    // runs the task inline
+    default boolean restoresThreadState() {
+        return false;
+    }
+
+}
@@ -0,0 +1,198 @@
+package example.threadstate.core.executors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+
+// Task wrapper running interceptors in a single loop around the task, instead of nesting one callable per wrapper
+public final class TaskPipeline implements TaskWrapper {
+
+    private final TaskInterceptor[] interceptors;
+
+    private TaskPipeline(TaskInterceptor[] interceptors) {
+        this.interceptors = interceptors;
+    }
+
+    // The first interceptor is the outermost one
+    public static TaskPipeline of(TaskInterceptor... interceptors) {
+        return new TaskPipeline(interceptors.clone());
+    }
+
+    public TaskPipeline then(TaskInterceptor interceptor) {
+        final TaskInterceptor[] fused = Arrays.copyOf(interceptors, interceptors.length + 1);
+        fused[interceptors.length] = interceptor;
+        return new TaskPipeline(fused);
+    }
+
+    @Override
+    public TaskWrapper andThen(TaskWrapper other) {
+        if (other instanceof TaskPipeline) {
+            final TaskInterceptor[] otherInterceptors = ((TaskPipeline) other).interceptors;
+            final TaskInterceptor[] fused = Arrays.copyOf(interceptors, interceptors.length + otherInterceptors.length);
+            System.arraycopy(otherInterceptors, 0, fused, interceptors.length, otherInterceptors.length);
+            return new TaskPipeline(fused);
+        }
+        return TaskWrapper.super.andThen(other);
+    }
+
+    @Override
+    public <T> Callable<T> wrap(Callable<T> callable) {
+        return new PipelineTask<>(interceptors, capture(), callable, null);
+    }
+
+    @Override
+    public Runnable wrapRunnable(Runnable runnable) {
+        return new PipelineTask<>(interceptors, capture(), null, runnable);
+    }
+
+    @Override
+    public <T> List<Callable<T>> wrapAll(Collection<? extends Callable<T>> callables) {
+        final List<Callable<T>> wrapped = new ArrayList<>(callables.size());
+        if (callables.isEmpty()) {
+            return wrapped;
+        }
+
+        // The submitting thread state doesn't change between tasks: capture it once
+        final Object[] captured = capture();
+        for (final Callable<T> callable : callables) {
+            wrapped.add(new PipelineTask<>(interceptors, wrapped.isEmpty() ? captured : copy(captured), callable, null));
+        }
+        return wrapped;
+    }
+
+    @Override
+    public List<Runnable> wrapAllRunnables(Collection<? extends Runnable> runnables) {
+        final List<Runnable> wrapped = new ArrayList<>(runnables.size());
+        if (runnables.isEmpty()) {
+            return wrapped;
+        }
+
+        final Object[] captured = capture();
+        for (final Runnable runnable : runnables) {
+            wrapped.add(new PipelineTask<>(interceptors, wrapped.isEmpty() ? captured : copy(captured), null, runnable));
+        }
+        return wrapped;
+    }
+
+    @Override
+    public TaskWrapper bind() {
+        final Object[] captured = capture();
+        return new TaskWrapper() {
+
+            @Override
+            public <T> Callable<T> wrap(Callable<T> callable) {
+                return new PipelineTask<>(interceptors, copy(captured), callable, null);
+            }
+
+            @Override
+            public Runnable wrapRunnable(Runnable runnable) {
+                return new PipelineTask<>(interceptors, copy(captured), null, runnable);
+            }
+
+        };
+    }
+
+    private Object[] capture() {
+        final Object[] captured = new Object[interceptors.length];
+        for (int i = 0; i < interceptors.length; i++) {
+            captured[i] = interceptors[i].capture();
+        }
+        return captured;
+    }
+
+    private Object[] copy(Object[] captured) {
+        final Object[] copied = new Object[interceptors.length];
+        for (int i = 0; i < interceptors.length; i++) {
+            copied[i] = interceptors[i].copy(captured[i]);
+        }
+        return copied;
+    }
+
+    // Runs either a callable or a runnable, so that both cost a single wrapper
+    private static final class PipelineTask<T> implements Callable<T>, Runnable, SubmissionAware, Sheddable {
+
+        private final TaskInterceptor[] interceptors;
+
+        private final Object[] captured;
+
+        private final Callable<T> callable;
+
+        private final Runnable runnable;
+
+        // Same contract as in MementoTask: only ever compared to the current thread
+        private Thread submittingThread;
+
+        PipelineTask(TaskInterceptor[] interceptors, Object[] captured, Callable<T> callable, Runnable runnable) {
+            this.interceptors = interceptors;
+            this.captured = captured;
+            this.callable = callable;
+            this.runnable = runnable;
+        }
+
+        @Override
+        public void run() {
+            try {
+                call();
+            } catch (final RuntimeException e) {
+                throw e;
+            } catch (final Exception e) {
+                // Only thrown by interceptors, runnables can't throw checked exceptions
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public T call() throws Exception {
+            final boolean inline = submittingThread == Thread.currentThread();
+            // Only allocated when an interceptor returns a token
+            Object[] tokens = null;
+            int count = 0;
+            try {
+                for (; count < interceptors.length; count++) {
+                    final TaskInterceptor interceptor = interceptors[count];
+                    if (!inline || !interceptor.restoresThreadState()) {
+                        final Object token = interceptor.before(captured[count]);
+                        if (token != null) {
+                            if (tokens == null) {
+                                tokens = new Object[interceptors.length];
+                            }
+                            tokens[count] = token;
+                        }
+                    }
+                }
+                if (runnable != null) {
+                    runnable.run();
+                    return null;
+                }
+                return callable.call();
+            } finally {
+                for (int i = count - 1; i >= 0; i--) {
+                    final TaskInterceptor interceptor = interceptors[i];
+                    if (!inline || !interceptor.restoresThreadState()) {
+                        interceptor.after(captured[i], tokens != null ? tokens[i] : null);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void shed(RejectedExecutionException exception) {
+            Sheddable.shed(runnable, exception);
+        }
+
+        @Override
+        public void beforeSubmit() {
+            submittingThread = Thread.currentThread();
+        }
+
+        @Override
+        public void afterSubmit() {
+            submittingThread = null;
+        }
+
+    }
+
+}
@@ -1,19 +1,86 @@
 package example.threadstate.core.executors;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
 
 @FunctionalInterface
 public interface TaskWrapper {
 
+    static TaskWrapper identity() {
+        return IdentityTaskWrapper.INSTANCE;
+    }
+
     <T> Callable<T> wrap(Callable<T> callable);
 
+    // Wraps tasks submitted together by the same thread
+    default <T> List<Callable<T>> wrapAll(Collection<? extends Callable<T>> callables) {
+        final List<Callable<T>> wrapped = new ArrayList<>(callables.size());
+        for (final Callable<T> callable : callables) {
+            wrapped.add(wrap(callable));
+        }
+        return wrapped;
+    }
+
+    // Wraps fire-and-forget tasks. Defaults to wrapping them as callables, implementations should rather wrap them
+    // directly.
+    default Runnable wrapRunnable(Runnable runnable) {
+        return new CallableRunnable(wrap(Executors.callable(runnable)));
+    }
+
+    default List<Runnable> wrapAllRunnables(Collection<? extends Runnable> runnables) {
+        final List<Callable<Object>> callables = new ArrayList<>(runnables.size());
+        for (final Runnable runnable : runnables) {
+            callables.add(Executors.callable(runnable));
+        }
+
+        final List<Runnable> wrapped = new ArrayList<>(callables.size());
+        for (final Callable<Object> callable : wrapAll(callables)) {
+            wrapped.add(new CallableRunnable(callable));
+        }
+        return wrapped;
+    }
+
+    // Returns a wrapper restoring the state of the calling thread, whichever thread later wraps tasks with it.
+    // Wrappers capturing the thread state on wrap must override it.
+    default TaskWrapper bind() {
+        return this;
+    }
+
+    // Tasks wrapped by the other wrapper are still notified of their submission, see SubmissionAware
     default TaskWrapper andThen(final TaskWrapper other) {
         final TaskWrapper that = this;
         return new TaskWrapper() {
 
             @Override
             public <T> Callable<T> wrap(final Callable<T> callable) {
-                return that.wrap(other.wrap(callable));
+                final Callable<T> inner = other.wrap(callable);
+                return ComposedTasks.callable(that.wrap(inner), inner);
+            }
+
+            @Override
+            public <T> List<Callable<T>> wrapAll(Collection<? extends Callable<T>> callables) {
+                final List<Callable<T>> inners = other.wrapAll(callables);
+                return ComposedTasks.callables(that.wrapAll(inners), inners);
+            }
+
+            @Override
+            public Runnable wrapRunnable(Runnable runnable) {
+                final Runnable inner = other.wrapRunnable(runnable);
+                return ComposedTasks.runnable(that.wrapRunnable(inner), inner);
+            }
+
+            @Override
+            public List<Runnable> wrapAllRunnables(Collection<? extends Runnable> runnables) {
+                final List<Runnable> inners = other.wrapAllRunnables(runnables);
+                return ComposedTasks.runnables(that.wrapAllRunnables(inners), inners);
+            }
+
+            @Override
+            public TaskWrapper bind() {
+                return that.bind().andThen(other.bind());
             }
 
         };
@@ -0,0 +1,50 @@
+package example.threadstate.core.memento;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Memento of savers without anything to propagate. Restoring it still clears what a previous task may have left in
+// the thread. It keeps no restore state, so that a single instance is shared by every task.
+final class AbsentThreadStateMemento implements ThreadStateMemento {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AbsentThreadStateMemento.class);
+
+    private final ValueMementoSaver<Object>[] savers;
+
+    AbsentThreadStateMemento(ValueMementoSaver<Object>[] savers) {
+        this.savers = savers;
+    }
+
+    @Override
+    public void restore() {
+        boolean ok = false;
+        try {
+            for (final ValueMementoSaver<Object> saver : savers) {
+                saver.restore(null);
+            }
+            ok = true;
+        } finally {
+            if (!ok) {
+                cleanup();
+            }
+        }
+    }
+
+    // The previous values are not kept: the thread is cleared again, whatever the task left in it
+    @Override
+    public void cleanup() {
+        for (int i = savers.length - 1; i >= 0; i--) {
+            try {
+                savers[i].cleanup(null, null);
+            } catch (final RuntimeException e) {
+                LOGGER.error("Caught exception while cleaning absent value of saver {}", savers[i], e);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AbsentThreadStateMemento";
+    }
+
+}
@@ -0,0 +1,180 @@
+package example.threadstate.core.memento;
+
+import example.threadstate.core.executors.Sheddable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs consecutive tasks submitted with the same state back-to-back, under a single restore and cleanup.
+// Batches end when the state changes, or when they reach the maximum size or duration, so that a worker
+// yields to the delegate executor regularly. When the delegate rejects the drainers, queued tasks are notified
+// through Sheddable.
+public class BatchingMementoExecutor implements Executor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchingMementoExecutor.class);
+
+    private final Executor delegate;
+
+    private final ThreadStateMementoSaver saver;
+
+    private final int maxConcurrency;
+
+    private final int maxBatchSize;
+
+    private final long maxBatchNanos;
+
+    private final Queue<Task> queue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger drainers = new AtomicInteger();
+
+    private final Runnable drainer = this::drain;
+
+    public BatchingMementoExecutor(Executor delegate, ThreadStateMementoSaver saver, int maxConcurrency) {
+        this(delegate, saver, maxConcurrency, 64, 1, TimeUnit.MILLISECONDS);
+    }
+
+    public BatchingMementoExecutor(
+        Executor delegate,
+        ThreadStateMementoSaver saver,
+        int maxConcurrency,
+        int maxBatchSize,
+        long maxBatchDuration,
+        TimeUnit unit
+    ) {
+        if (maxConcurrency < 1 || maxBatchSize < 1) {
+            throw new IllegalArgumentException("Max concurrency and max batch size must be positive");
+        }
+        this.delegate = delegate;
+        this.saver = saver;
+        this.maxConcurrency = maxConcurrency;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchNanos = unit.toNanos(maxBatchDuration);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        final Task task = new Task(saver.save(), command);
+        queue.add(task);
+        try {
+            startDrainer();
+        } catch (final RejectedExecutionException e) {
+            // The caller is told about its own task, unless a running drainer already took it
+            final boolean removed = queue.remove(task);
+            shedStranded(e);
+            if (removed) {
+                throw e;
+            }
+        }
+    }
+
+    private void startDrainer() {
+        for (;;) {
+            final int count = drainers.get();
+            if (count >= maxConcurrency) {
+                return;
+            }
+            if (drainers.compareAndSet(count, count + 1)) {
+                break;
+            }
+        }
+
+        try {
+            delegate.execute(drainer);
+        } catch (final RuntimeException e) {
+            drainers.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void drain() {
+        try {
+            Task task = queue.poll();
+            while (task != null) {
+                task = runBatch(task);
+            }
+        } finally {
+            drainers.decrementAndGet();
+
+            // Tasks added while this drainer was stopping may have seen too many drainers, or the batch limit was
+            // reached, or this drainer failed
+            if (!queue.isEmpty()) {
+                try {
+                    startDrainer();
+                } catch (final RejectedExecutionException e) {
+                    shedStranded(e);
+                }
+            }
+        }
+    }
+
+    // Without any running drainer, queued tasks would never run
+    private void shedStranded(RejectedExecutionException exception) {
+        while (drainers.get() == 0) {
+            final Task task = queue.poll();
+            if (task == null) {
+                return;
+            }
+            if (!Sheddable.shed(task.command, exception)) {
+                LOGGER.warn("Dropping task {}: {}", task.command, exception.getMessage());
+            }
+        }
+    }
+
+    // Returns the first task of the next batch, or null when the queue is empty or the batch limit is reached
+    private Task runBatch(Task first) {
+        final ThreadStateMemento memento = first.memento;
+        final long start = System.nanoTime();
+        try {
+            memento.restore();
+        } catch (final RuntimeException e) {
+            // The task can't run without its thread state: it's shed, and the drainer goes on with the next task
+            if (!Sheddable.shed(first.command, new RejectedExecutionException("Can't restore thread state", e))) {
+                LOGGER.error("Dropping task {}: can't restore thread state", first.command, e);
+            }
+            return queue.poll();
+        }
+        try {
+            runSafely(first.command);
+            for (int size = 1; size < maxBatchSize && System.nanoTime() - start < maxBatchNanos; size++) {
+                final Task task = queue.poll();
+                if (task == null || !memento.isSameState(task.memento)) {
+                    return task;
+                }
+                runSafely(task.command);
+            }
+        } finally {
+            memento.cleanup();
+        }
+
+        // Batch limit reached: the drainer stops and is submitted again, so that other tasks of the delegate run
+        return null;
+    }
+
+    private static void runSafely(Runnable command) {
+        try {
+            command.run();
+        } catch (final RuntimeException e) {
+            LOGGER.error("Caught exception while running batched task {}", command, e);
+        }
+    }
+
+    private static final class Task {
+
+        private final ThreadStateMemento memento;
+
+        private final Runnable command;
+
+        Task(ThreadStateMemento memento, Runnable command) {
+            this.memento = memento;
+            this.command = command;
+        }
+
+    }
+
+}
@@ -0,0 +1,11 @@
+package example.threadstate.core.memento;
+
+public enum CleanupMode {
+
+    // Remove the restored state from the thread
+    REMOVE,
+
+    // Reset the thread to the state it had before restoring, keeping thread local entries in place
+    RESET
+
+}
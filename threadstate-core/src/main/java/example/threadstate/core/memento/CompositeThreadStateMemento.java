@@ -3,27 +3,36 @@ package example.threadstate.core.memento;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.List;
-
 final class CompositeThreadStateMemento implements ThreadStateMemento {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CompositeThreadStateMemento.class);
 
-    private final List<ThreadStateMemento> mementos;
+    private final ValueMementoSaver<Object>[] savers;
+
+    // Captured values, never modified: they're shared by copies unless a saver copies its value
+    private final Object[] values;
+
+    // Savers restored as unchanged, for the first 64 savers
+    private long unchanged;
+
+    // Previous values returned on restore, only allocated when needed
+    private Object[] previous;
 
     private boolean cleaned;
 
-    public CompositeThreadStateMemento(List<ThreadStateMemento> mementos) {
-        this.mementos = mementos;
+    CompositeThreadStateMemento(ValueMementoSaver<Object>[] savers, Object[] values) {
+        this.savers = savers;
+        this.values = values;
     }
 
     @Override
     public void restore() {
+        unchanged = 0;
         boolean ok = false;
         int count = 0;
         try {
-            for (final ThreadStateMemento memento : mementos) {
-                memento.restore();
+            for (int i = 0; i < savers.length; i++) {
+                setPrevious(i, savers[i].restore(values[i]));
                 count++;
             }
             ok = true;
@@ -36,23 +45,84 @@ final class CompositeThreadStateMemento implements ThreadStateMemento {
 
     @Override
     public void cleanup() {
-        cleanupWithCount(mementos.size());
+        cleanupWithCount(savers.length);
+    }
+
+    @Override
+    public ThreadStateMemento copy() {
+        Object[] copiedValues = values;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                final Object copiedValue = savers[i].copy(values[i]);
+                if (copiedValue != values[i]) {
+                    if (copiedValues == values) {
+                        copiedValues = values.clone();
+                    }
+                    copiedValues[i] = copiedValue;
+                }
+            }
+        }
+        return new CompositeThreadStateMemento(savers, copiedValues);
+    }
+
+    @Override
+    public boolean isSameState(ThreadStateMemento other) {
+        if (other == this) {
+            return true;
+        }
+        if (!(other instanceof CompositeThreadStateMemento)) {
+            return false;
+        }
+
+        final CompositeThreadStateMemento that = (CompositeThreadStateMemento) other;
+        if (that.values == values) {
+            return true;
+        }
+        if (that.savers != savers) {
+            return false;
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (that.values[i] != values[i] && !MementoValueSaver.isSameState(values[i], that.values[i])) {
+                return false;
+            }
+        }
+        return true;
     }
 
     private void cleanupWithCount(int count) {
         if (!cleaned) {
             cleaned = true;
             for (int i = count - 1; i >= 0; i--) {
-                cleanupSilently(mementos.get(i));
+                cleanupSilently(savers[i], values[i], getPrevious(i));
             }
         }
     }
 
-    private static void cleanupSilently(ThreadStateMemento memento) {
+    private void setPrevious(int index, Object previousValue) {
+        if (previousValue == ValueMementoSaver.UNCHANGED && index < Long.SIZE) {
+            unchanged |= 1L << index;
+            previousValue = null;
+        }
+        if (previous != null) {
+            previous[index] = previousValue;
+        } else if (previousValue != null) {
+            previous = new Object[savers.length];
+            previous[index] = previousValue;
+        }
+    }
+
+    private Object getPrevious(int index) {
+        if (index < Long.SIZE && (unchanged & (1L << index)) != 0) {
+            return ValueMementoSaver.UNCHANGED;
+        }
+        return previous != null ? previous[index] : null;
+    }
+
+    private static void cleanupSilently(ValueMementoSaver<Object> saver, Object value, Object previousValue) {
         try {
-            memento.cleanup();
+            saver.cleanup(value, previousValue);
         } catch (final RuntimeException e) {
-            LOGGER.error("Caught exception while cleaning memento {}", memento, e);
+            LOGGER.error("Caught exception while cleaning value {} of saver {}", value, saver, e);
         }
     }
 
@@ -7,17 +7,51 @@ class CompositeThreadStateMementoSaver implements ThreadStateMementoSaver {
 
     private final List<ThreadStateMementoSaver> savers;
 
+    private final ValueMementoSaver<Object>[] valueSavers;
+
+    // Last memento saved by each thread, followed by the epochs of the savers at that time
+    private final ThreadLocal<Object[]> cache;
+
+    // Shared by the tasks submitted without anything to propagate
+    private final AbsentThreadStateMemento absentMemento;
+
     public CompositeThreadStateMementoSaver(List<ThreadStateMementoSaver> savers) {
+        this(savers, false);
+    }
+
+    CompositeThreadStateMementoSaver(List<ThreadStateMementoSaver> savers, boolean cached) {
         this.savers = savers;
+        this.valueSavers = toValueSavers(savers);
+        this.absentMemento = new AbsentThreadStateMemento(valueSavers);
+        this.cache = cached ? ThreadLocal.withInitial(() -> new Object[valueSavers.length + 1]) : null;
     }
 
     @Override
     public ThreadStateMemento save() {
-        final List<ThreadStateMemento> mementos = new ArrayList<>(savers.size());
-        for (ThreadStateMementoSaver saver : savers) {
-            mementos.add(saver.save());
+        if (cache == null) {
+            return capture();
         }
-        return new CompositeThreadStateMemento(mementos);
+
+        final Object[] entry = cache.get();
+        boolean versioned = true;
+        boolean unchanged = entry[0] != null;
+        for (int i = 0; i < valueSavers.length; i++) {
+            final Object epoch = valueSavers[i].epoch();
+            if (epoch == null) {
+                versioned = false;
+            } else if (entry[i + 1] != epoch) {
+                entry[i + 1] = epoch;
+                unchanged = false;
+            }
+        }
+
+        if (versioned && unchanged) {
+            return ((ThreadStateMemento) entry[0]).copy();
+        }
+
+        final ThreadStateMemento memento = capture();
+        entry[0] = versioned ? memento : null;
+        return memento;
     }
 
     @Override
@@ -28,7 +62,42 @@ class CompositeThreadStateMementoSaver implements ThreadStateMementoSaver {
         } else {
             newSavers.add(other);
         }
-        return new CompositeThreadStateMementoSaver(newSavers);
+        return new CompositeThreadStateMementoSaver(newSavers, cache != null);
+    }
+
+    @Override
+    public ThreadStateMementoSaver cached() {
+        return cache != null ? this : new CompositeThreadStateMementoSaver(savers, true);
+    }
+
+    // Absent values are kept as null, restored as such to clear whatever the worker thread holds. Without any present
+    // value, the shared absent memento is returned instead.
+    private ThreadStateMemento capture() {
+        Object[] values = null;
+        for (int i = 0; i < valueSavers.length; i++) {
+            final Object value = valueSavers[i].capture();
+            if (valueSavers[i].isPresent(value)) {
+                if (values == null) {
+                    values = new Object[valueSavers.length];
+                }
+                values[i] = value;
+            }
+        }
+        return values != null ? new CompositeThreadStateMemento(valueSavers, values) : absentMemento;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ValueMementoSaver<Object>[] toValueSavers(List<ThreadStateMementoSaver> savers) {
+        final ValueMementoSaver<?>[] valueSavers = new ValueMementoSaver<?>[savers.size()];
+        for (int i = 0; i < valueSavers.length; i++) {
+            final ThreadStateMementoSaver saver = savers.get(i);
+            if (saver instanceof ValueMementoSaver) {
+                valueSavers[i] = (ValueMementoSaver<?>) saver;
+            } else {
+                valueSavers[i] = new MementoValueSaver(saver);
+            }
+        }
+        return (ValueMementoSaver<Object>[]) valueSavers;
     }
 
 }
@@ -0,0 +1,73 @@
+package example.threadstate.core.memento;
+
+import java.util.concurrent.TimeUnit;
+
+// Time by which the caller stops waiting for the result of the current work, or earlier if it's cancelled, e.g. when
+// the client disconnects. Propagated with DeadlineMementoSaver, checked by DeadlineTaskWrapper and AsyncRetryExecutor.
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long expirationNanos;
+
+    private volatile boolean cancelled;
+
+    private Deadline(long expirationNanos) {
+        this.expirationNanos = expirationNanos;
+    }
+
+    public static Deadline after(long timeout, TimeUnit unit) {
+        return new Deadline(System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    // Null when the current work has no deadline
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    public static void runWithin(Deadline deadline, Runnable runnable) {
+        final Deadline previous = CURRENT.get();
+        CURRENT.set(deadline);
+        try {
+            runnable.run();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    static ThreadLocal<Deadline> local() {
+        return CURRENT;
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public boolean isExpired() {
+        return cancelled || System.nanoTime() - expirationNanos >= 0;
+    }
+
+    public long remaining(TimeUnit unit) {
+        return cancelled ? 0 : unit.convert(Math.max(0, expirationNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    public void check() {
+        if (isExpired()) {
+            throw new DeadlineExceededException(this);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline(remaining: " + remaining(TimeUnit.MILLISECONDS) + " ms" + (cancelled ? ", cancelled" : "") + ")";
+    }
+
+}
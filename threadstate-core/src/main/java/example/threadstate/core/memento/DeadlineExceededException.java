@@ -0,0 +1,13 @@
+package example.threadstate.core.memento;
+
+import java.util.concurrent.CancellationException;
+
+public class DeadlineExceededException extends CancellationException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DeadlineExceededException(Deadline deadline) {
+        super(deadline.isCancelled() ? "Deadline cancelled" : "Deadline exceeded");
+    }
+
+}
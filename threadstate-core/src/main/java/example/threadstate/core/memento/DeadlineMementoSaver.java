@@ -0,0 +1,13 @@
+package example.threadstate.core.memento;
+
+public class DeadlineMementoSaver extends ThreadLocalMementoSaver<Deadline> {
+
+    public DeadlineMementoSaver() {
+        super(Deadline.local());
+    }
+
+    public DeadlineMementoSaver(CleanupMode cleanupMode) {
+        super(Deadline.local(), cleanupMode);
+    }
+
+}
@@ -0,0 +1,96 @@
+package example.threadstate.core.memento;
+
+import example.threadstate.core.executors.Sheddable;
+import example.threadstate.core.executors.TaskWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+// Skips tasks whose deadline, captured on submission, is exceeded when they're about to run. Callables fail with
+// a DeadlineExceededException, sheddable runnables are shed, other runnables are skipped. Tasks of the JDK
+// CompletableFuture.runAsync() still run, as their future could never complete otherwise: use
+// CompletableFutures.runAsync() for them to be shed.
+// Chain it after MementoTaskWrapper, so that the memento wrapper stays the outermost one.
+public class DeadlineTaskWrapper implements TaskWrapper {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeadlineTaskWrapper.class);
+
+    @Override
+    public <T> Callable<T> wrap(Callable<T> callable) {
+        final Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return callable;
+        }
+        return () -> {
+            deadline.check();
+            return callable.call();
+        };
+    }
+
+    @Override
+    public Runnable wrapRunnable(Runnable runnable) {
+        final Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return runnable;
+        }
+        return new DeadlineRunnable(deadline, runnable);
+    }
+
+    @Override
+    public TaskWrapper bind() {
+        final Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return TaskWrapper.identity();
+        }
+        return new TaskWrapper() {
+
+            @Override
+            public <T> Callable<T> wrap(Callable<T> callable) {
+                return () -> {
+                    deadline.check();
+                    return callable.call();
+                };
+            }
+
+            @Override
+            public Runnable wrapRunnable(Runnable runnable) {
+                return new DeadlineRunnable(deadline, runnable);
+            }
+
+        };
+    }
+
+    private static final class DeadlineRunnable implements Runnable, Sheddable {
+
+        private final Deadline deadline;
+
+        private final Runnable runnable;
+
+        DeadlineRunnable(Deadline deadline, Runnable runnable) {
+            this.deadline = deadline;
+            this.runnable = runnable;
+        }
+
+        @Override
+        public void run() {
+            if (!deadline.isExpired() || runnable instanceof CompletableFuture.AsynchronousCompletionTask) {
+                runnable.run();
+                return;
+            }
+
+            final DeadlineExceededException exception = new DeadlineExceededException(deadline);
+            if (!Sheddable.shed(runnable, new RejectedExecutionException(exception.getMessage(), exception))) {
+                LOGGER.debug("Skipping task {}: {}", runnable, exception.getMessage());
+            }
+        }
+
+        @Override
+        public void shed(RejectedExecutionException exception) {
+            Sheddable.shed(runnable, exception);
+        }
+
+    }
+
+}
@@ -0,0 +1,68 @@
+package example.threadstate.core.memento;
+
+// Captures a cheap reference on the submitting thread, and materializes the state from it on the worker.
+// Materialization happens once per capture, even when the memento is copied or cached.
+public interface LazyMementoSaver<R, T> extends ValueMementoSaver<LazyMementoSaver.Reference<R, T>> {
+
+    R reference();
+
+    T materialize(R reference);
+
+    // Same contract as ValueMementoSaver, on the materialized value, which is null without reference
+    Object restoreMaterialized(T value);
+
+    void cleanupMaterialized(T value, Object previous);
+
+    default boolean isPresentReference(R reference) {
+        return reference != null;
+    }
+
+    @Override
+    default Reference<R, T> capture() {
+        final R reference = reference();
+        return isPresentReference(reference) ? new Reference<>(reference) : null;
+    }
+
+    @Override
+    default Object restore(Reference<R, T> reference) {
+        return restoreMaterialized(reference != null ? reference.materialize(this) : null);
+    }
+
+    @Override
+    default void cleanup(Reference<R, T> reference, Object previous) {
+        cleanupMaterialized(reference != null ? reference.materialize(this) : null, previous);
+    }
+
+    final class Reference<R, T> {
+
+        private final R reference;
+
+        private volatile T value;
+
+        Reference(R reference) {
+            this.reference = reference;
+        }
+
+        // Tasks of a bulk submission may run concurrently: only one of them materializes the value
+        T materialize(LazyMementoSaver<R, T> saver) {
+            T result = value;
+            if (result == null) {
+                synchronized (this) {
+                    result = value;
+                    if (result == null) {
+                        result = saver.materialize(reference);
+                        value = result;
+                    }
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "LazyMementoSaver.Reference(" + reference + ")";
+        }
+
+    }
+
+}
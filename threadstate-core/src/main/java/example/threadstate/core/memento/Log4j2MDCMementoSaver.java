@@ -0,0 +1,86 @@
+package example.threadstate.core.memento;
+
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.spi.DefaultThreadContextMap;
+
+import java.util.Map;
+
+// Shares Log4j2's immutable thread context maps by reference. The default context map is copy-on-write, so its maps
+// are installed as is; other context map implementations get a copy on restore.
+public class Log4j2MDCMementoSaver extends MDCMementoSaver {
+
+    private final ThreadLocal<Map<String, String>> mapLocal;
+
+    public Log4j2MDCMementoSaver() {
+        this(CleanupMode.REMOVE);
+    }
+
+    @SuppressWarnings("unchecked")
+    public Log4j2MDCMementoSaver(CleanupMode cleanupMode) {
+        super(cleanupMode);
+
+        ThreadLocal<Map<String, String>> local = null;
+        try {
+            final Object contextMap = readField(ThreadContext.class, "contextMap", null);
+            if (contextMap != null && contextMap.getClass() == DefaultThreadContextMap.class) {
+                local = (ThreadLocal<Map<String, String>>) readField(DefaultThreadContextMap.class, "localMap", contextMap);
+            }
+        } catch (final ReflectiveOperationException | RuntimeException e) {
+            local = null;
+        }
+        mapLocal = local;
+    }
+
+    @Override
+    public Map<String, String> capture() {
+        final Map<String, String> mdcContext = ThreadContext.getImmutableContext();
+        return mdcContext.isEmpty() ? null : mdcContext;
+    }
+
+    @Override
+    public Object epoch() {
+        return ThreadContext.getImmutableContext();
+    }
+
+    @Override
+    public Object restore(Map<String, String> mdcContext) {
+        final Map<String, String> previous = capture();
+        if (previous == mdcContext) {
+            return UNCHANGED;
+        }
+
+        install(mdcContext);
+        return getCleanupMode() == CleanupMode.RESET ? previous : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void cleanup(Map<String, String> mdcContext, Object previous) {
+        if (previous == UNCHANGED) {
+            if (capture() != mdcContext) {
+                install(mdcContext);
+            }
+            return;
+        }
+        install((Map<String, String>) previous);
+    }
+
+    private void install(Map<String, String> mdcContext) {
+        if (mapLocal != null) {
+            if (mdcContext == null) {
+                mapLocal.remove();
+            } else {
+                mapLocal.set(mdcContext);
+            }
+            return;
+        }
+
+        ThreadContext.clearMap();
+        if (mdcContext != null) {
+            for (final Map.Entry<String, String> entry : mdcContext.entrySet()) {
+                ThreadContext.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,93 @@
+package example.threadstate.core.memento;
+
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import org.slf4j.MDC;
+import org.slf4j.spi.MDCAdapter;
+
+import java.util.Map;
+
+// Shares Logback's copy-on-write MDC maps by reference. Once a map has been read, Logback copies it on next write,
+// so a captured map is never modified and can be installed as is on other threads.
+public class LogbackMDCMementoSaver extends MDCMementoSaver {
+
+    private final LogbackMDCAdapter adapter;
+
+    private final ThreadLocal<Map<String, String>> mapLocal;
+
+    private final ThreadLocal<Integer> lastOperationLocal;
+
+    private final Integer mapCopyOperation;
+
+    public LogbackMDCMementoSaver() {
+        this(CleanupMode.REMOVE);
+    }
+
+    @SuppressWarnings("unchecked")
+    public LogbackMDCMementoSaver(CleanupMode cleanupMode) {
+        super(cleanupMode);
+
+        final MDCAdapter mdcAdapter = MDC.getMDCAdapter();
+        if (!(mdcAdapter instanceof LogbackMDCAdapter)) {
+            throw new IllegalStateException("MDC adapter is not a LogbackMDCAdapter: " + mdcAdapter);
+        }
+
+        try {
+            adapter = (LogbackMDCAdapter) mdcAdapter;
+            mapLocal = (ThreadLocal<Map<String, String>>) readField(LogbackMDCAdapter.class, "copyOnThreadLocal", adapter);
+            lastOperationLocal = (ThreadLocal<Integer>) readField(LogbackMDCAdapter.class, "lastOperation", adapter);
+            mapCopyOperation = (Integer) readField(LogbackMDCAdapter.class, "MAP_COPY_OPERATION", null);
+        } catch (final ReflectiveOperationException | RuntimeException e) {
+            throw new IllegalStateException("Unsupported Logback version", e);
+        }
+    }
+
+    @Override
+    public Map<String, String> capture() {
+        // Marks the map as shared: next write on this thread will copy it
+        return adapter.getPropertyMap();
+    }
+
+    @Override
+    public Object epoch() {
+        // Captured maps are copied on next write
+        final Map<String, String> mdcContext = mapLocal.get();
+        return mdcContext != null ? mdcContext : EMPTY_EPOCH;
+    }
+
+    @Override
+    public Object restore(Map<String, String> mdcContext) {
+        final Map<String, String> previous = mapLocal.get();
+        if (previous == mdcContext) {
+            // The map may be shared with the submitting thread: the next write must copy it anyway
+            if (mdcContext != null) {
+                lastOperationLocal.set(mapCopyOperation);
+            }
+            return UNCHANGED;
+        }
+
+        install(mdcContext);
+        return getCleanupMode() == CleanupMode.RESET ? previous : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void cleanup(Map<String, String> mdcContext, Object previous) {
+        if (previous == UNCHANGED) {
+            if (mapLocal.get() != mdcContext) {
+                install(mdcContext);
+            }
+            return;
+        }
+        install((Map<String, String>) previous);
+    }
+
+    private void install(Map<String, String> mdcContext) {
+        if (mdcContext == null) {
+            adapter.clear();
+        } else {
+            mapLocal.set(mdcContext);
+            lastOperationLocal.set(mapCopyOperation);
+        }
+    }
+
+}
@@ -1,44 +1,108 @@
 package example.threadstate.core.memento;
 
+import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.slf4j.spi.MDCAdapter;
 
+import java.lang.reflect.Field;
 import java.util.Map;
+import java.util.Objects;
 
-public class MDCMementoSaver implements ThreadStateMementoSaver {
+// Generic saver, working with any SLF4J binding: the captured copy is never modified, so it's shared by all restores
+public class MDCMementoSaver implements ValueMementoSaver<Map<String, String>> {
 
-    @Override
-    public ThreadStateMemento save() {
-        final Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+    private static final String LOGBACK_ADAPTER = "ch.qos.logback.classic.util.LogbackMDCAdapter";
 
-        if (mdcContext == null) {
-            return new ThreadStateMemento() {
+    private static final String LOG4J2_ADAPTER = "org.apache.logging.slf4j.Log4jMDCAdapter";
 
-                @Override
-                public void restore() {
-                    MDC.clear();
-                }
+    private final CleanupMode cleanupMode;
 
-                @Override
-                public void cleanup() {
-                    MDC.clear();
-                }
+    public MDCMementoSaver() {
+        this(CleanupMode.REMOVE);
+    }
 
-            };
-        }
+    public MDCMementoSaver(CleanupMode cleanupMode) {
+        this.cleanupMode = cleanupMode;
+    }
+
+    public static MDCMementoSaver forCurrentBinding() {
+        return forCurrentBinding(CleanupMode.REMOVE);
+    }
 
-        return new ThreadStateMemento() {
+    public static MDCMementoSaver forCurrentBinding(CleanupMode cleanupMode) {
+        final MDCAdapter adapter = MDC.getMDCAdapter();
+        final String adapterClassName = adapter != null ? adapter.getClass().getName() : null;
 
-            @Override
-            public void restore() {
-                MDC.setContextMap(mdcContext);
+        try {
+            if (LOGBACK_ADAPTER.equals(adapterClassName)) {
+                return new LogbackMDCMementoSaver(cleanupMode);
+            }
+            if (LOG4J2_ADAPTER.equals(adapterClassName)) {
+                return new Log4j2MDCMementoSaver(cleanupMode);
             }
+        } catch (final IllegalStateException e) {
+            LoggerFactory.getLogger(MDCMementoSaver.class).warn("Can't share MDC contexts of {}, will copy them", adapterClassName, e);
+        }
+
+        return new MDCMementoSaver(cleanupMode);
+    }
+
+    protected final CleanupMode getCleanupMode() {
+        return cleanupMode;
+    }
+
+    @Override
+    public Map<String, String> capture() {
+        return MDC.getCopyOfContextMap();
+    }
 
-            @Override
-            public void cleanup() {
-                MDC.clear();
+    @Override
+    public boolean isPresent(Map<String, String> mdcContext) {
+        return mdcContext != null && !mdcContext.isEmpty();
+    }
+
+    @Override
+    public Object restore(Map<String, String> mdcContext) {
+        // The generic MDC API only gives copies: the current context is only read when it must be reset on cleanup
+        Map<String, String> previous = null;
+        if (cleanupMode == CleanupMode.RESET) {
+            previous = nullIfEmpty(MDC.getCopyOfContextMap());
+            if (Objects.equals(previous, nullIfEmpty(mdcContext))) {
+                return UNCHANGED;
             }
+        }
+
+        if (mdcContext == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(mdcContext);
+        }
+        return previous;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void cleanup(Map<String, String> mdcContext, Object previous) {
+        if (previous == UNCHANGED) {
+            // The context can't be compared without copying it: the captured one is put back anyway
+            previous = nullIfEmpty(mdcContext);
+        }
+        if (previous == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap((Map<String, String>) previous);
+        }
+    }
+
+    // Backends don't expose their context maps: savers sharing them have to access their internals
+    static Object readField(Class<?> type, String name, Object target) throws ReflectiveOperationException {
+        final Field field = type.getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(target);
+    }
 
-        };
+    private static Map<String, String> nullIfEmpty(Map<String, String> mdcContext) {
+        return mdcContext == null || mdcContext.isEmpty() ? null : mdcContext;
     }
 
 }
@@ -0,0 +1,28 @@
+package example.threadstate.core.memento;
+
+import java.util.concurrent.Callable;
+
+final class MementoCallable<T> extends MementoTask implements Callable<T> {
+
+    private final Callable<T> callable;
+
+    MementoCallable(ThreadStateMemento memento, Callable<T> callable) {
+        super(memento);
+        this.callable = callable;
+    }
+
+    @Override
+    public T call() throws Exception {
+        if (runsInline()) {
+            return callable.call();
+        }
+
+        memento.restore();
+        try {
+            return callable.call();
+        } finally {
+            memento.cleanup();
+        }
+    }
+
+}
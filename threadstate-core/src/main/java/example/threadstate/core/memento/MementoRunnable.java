@@ -0,0 +1,36 @@
+package example.threadstate.core.memento;
+
+import example.threadstate.core.executors.Sheddable;
+
+import java.util.concurrent.RejectedExecutionException;
+
+final class MementoRunnable extends MementoTask implements Runnable, Sheddable {
+
+    private final Runnable runnable;
+
+    MementoRunnable(ThreadStateMemento memento, Runnable runnable) {
+        super(memento);
+        this.runnable = runnable;
+    }
+
+    @Override
+    public void run() {
+        if (runsInline()) {
+            runnable.run();
+            return;
+        }
+
+        memento.restore();
+        try {
+            runnable.run();
+        } finally {
+            memento.cleanup();
+        }
+    }
+
+    @Override
+    public void shed(RejectedExecutionException exception) {
+        Sheddable.shed(runnable, exception);
+    }
+
+}
@@ -0,0 +1,32 @@
+package example.threadstate.core.memento;
+
+import example.threadstate.core.executors.SubmissionAware;
+
+abstract class MementoTask implements SubmissionAware {
+
+    final ThreadStateMemento memento;
+
+    // Thread which captured the memento, while it is submitting the task. Only ever compared to the current thread,
+    // so a stale value read by another thread is harmless.
+    private Thread submittingThread;
+
+    MementoTask(ThreadStateMemento memento) {
+        this.memento = memento;
+    }
+
+    // Run inline by the submitting thread: its state is already the captured one
+    final boolean runsInline() {
+        return submittingThread == Thread.currentThread();
+    }
+
+    @Override
+    public void beforeSubmit() {
+        submittingThread = Thread.currentThread();
+    }
+
+    @Override
+    public void afterSubmit() {
+        submittingThread = null;
+    }
+
+}
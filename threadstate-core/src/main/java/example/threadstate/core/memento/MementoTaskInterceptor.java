@@ -0,0 +1,40 @@
+package example.threadstate.core.memento;
+
+import example.threadstate.core.executors.TaskInterceptor;
+
+// Pipeline counterpart of MementoTaskWrapper
+public class MementoTaskInterceptor implements TaskInterceptor {
+
+    private final ThreadStateMementoSaver saver;
+
+    public MementoTaskInterceptor(ThreadStateMementoSaver saver) {
+        this.saver = saver;
+    }
+
+    @Override
+    public Object capture() {
+        return saver.save();
+    }
+
+    @Override
+    public Object copy(Object captured) {
+        return ((ThreadStateMemento) captured).copy();
+    }
+
+    @Override
+    public Object before(Object captured) {
+        ((ThreadStateMemento) captured).restore();
+        return null;
+    }
+
+    @Override
+    public void after(Object captured, Object token) {
+        ((ThreadStateMemento) captured).cleanup();
+    }
+
+    @Override
+    public boolean restoresThreadState() {
+        return true;
+    }
+
+}
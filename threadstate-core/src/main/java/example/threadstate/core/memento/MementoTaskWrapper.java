@@ -2,6 +2,9 @@ package example.threadstate.core.memento;
 
 import example.threadstate.core.executors.TaskWrapper;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.Callable;
 
 public class MementoTaskWrapper implements TaskWrapper {
@@ -14,15 +17,59 @@ public class MementoTaskWrapper implements TaskWrapper {
 
     @Override
     public <T> Callable<T> wrap(Callable<T> callable) {
+        return new MementoCallable<>(saver.save(), callable);
+    }
+
+    @Override
+    public <T> List<Callable<T>> wrapAll(Collection<? extends Callable<T>> callables) {
+        final List<Callable<T>> wrapped = new ArrayList<>(callables.size());
+        if (callables.isEmpty()) {
+            return wrapped;
+        }
+
+        // The submitting thread state doesn't change between tasks: capture it once
+        final ThreadStateMemento memento = saver.save();
+        for (final Callable<T> callable : callables) {
+            wrapped.add(new MementoCallable<>(wrapped.isEmpty() ? memento : memento.copy(), callable));
+        }
+        return wrapped;
+    }
+
+    @Override
+    public TaskWrapper bind() {
         final ThreadStateMemento memento = saver.save();
-        return () -> {
-            memento.restore();
-            try {
-                return callable.call();
-            } finally {
-                memento.cleanup();
+        return new TaskWrapper() {
+
+            @Override
+            public <T> Callable<T> wrap(Callable<T> callable) {
+                return new MementoCallable<>(memento.copy(), callable);
+            }
+
+            @Override
+            public Runnable wrapRunnable(Runnable runnable) {
+                return new MementoRunnable(memento.copy(), runnable);
             }
+
         };
     }
 
+    @Override
+    public Runnable wrapRunnable(Runnable runnable) {
+        return new MementoRunnable(saver.save(), runnable);
+    }
+
+    @Override
+    public List<Runnable> wrapAllRunnables(Collection<? extends Runnable> runnables) {
+        final List<Runnable> wrapped = new ArrayList<>(runnables.size());
+        if (runnables.isEmpty()) {
+            return wrapped;
+        }
+
+        final ThreadStateMemento memento = saver.save();
+        for (final Runnable runnable : runnables) {
+            wrapped.add(new MementoRunnable(wrapped.isEmpty() ? memento : memento.copy(), runnable));
+        }
+        return wrapped;
+    }
+
 }
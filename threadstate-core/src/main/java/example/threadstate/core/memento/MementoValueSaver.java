@@ -0,0 +1,59 @@
+package example.threadstate.core.memento;
+
+// Adapts a plain saver: the captured value is the memento itself
+final class MementoValueSaver implements ValueMementoSaver<ThreadStateMemento> {
+
+    private final ThreadStateMementoSaver saver;
+
+    MementoValueSaver(ThreadStateMementoSaver saver) {
+        this.saver = saver;
+    }
+
+    @Override
+    public ThreadStateMemento capture() {
+        return saver.save();
+    }
+
+    @Override
+    public Object epoch() {
+        return saver.epoch();
+    }
+
+    @Override
+    public Object restore(ThreadStateMemento value) {
+        // Absent when restored by the shared memento of absent values: nothing to restore
+        if (value != null) {
+            value.restore();
+        }
+        return null;
+    }
+
+    @Override
+    public void cleanup(ThreadStateMemento value, Object previous) {
+        if (value != null) {
+            value.cleanup();
+        }
+    }
+
+    @Override
+    public ThreadStateMemento copy(ThreadStateMemento value) {
+        return value.copy();
+    }
+
+    // Copies are different instances but still hold the same state
+    static boolean isSameState(Object value, Object other) {
+        return value instanceof ThreadStateMemento && other instanceof ThreadStateMemento
+            && ((ThreadStateMemento) value).isSameState((ThreadStateMemento) other);
+    }
+
+    @Override
+    public ThreadStateMemento save() {
+        return saver.save();
+    }
+
+    @Override
+    public String toString() {
+        return saver.toString();
+    }
+
+}
@@ -0,0 +1,51 @@
+package example.threadstate.core.memento;
+
+import java.util.function.Supplier;
+
+// Priority lane of the current work, e.g. interactive or background, propagated with PriorityLaneMementoSaver.
+// Read by the lane supplier of a PriorityLaneExecutorService: PriorityLane::current.
+public final class PriorityLane {
+
+    public static final int INTERACTIVE = 0;
+
+    public static final int BACKGROUND = 1;
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private PriorityLane() {
+    }
+
+    // Interactive when the current work has no lane
+    public static int current() {
+        final Integer lane = CURRENT.get();
+        return lane != null ? lane : INTERACTIVE;
+    }
+
+    public static void runIn(int lane, Runnable runnable) {
+        supplyIn(lane, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    // Also gives the lane of a single submission through a DelegatedExecutorService, whose lane supplier reads it:
+    // PriorityLane.supplyIn(PriorityLane.BACKGROUND, () -> executor.submit(task))
+    public static <T> T supplyIn(int lane, Supplier<T> supplier) {
+        final Integer previous = CURRENT.get();
+        CURRENT.set(lane);
+        try {
+            return supplier.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    static ThreadLocal<Integer> local() {
+        return CURRENT;
+    }
+
+}
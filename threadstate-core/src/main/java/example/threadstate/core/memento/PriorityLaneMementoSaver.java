@@ -0,0 +1,13 @@
+package example.threadstate.core.memento;
+
+public class PriorityLaneMementoSaver extends ThreadLocalMementoSaver<Integer> {
+
+    public PriorityLaneMementoSaver() {
+        super(PriorityLane.local());
+    }
+
+    public PriorityLaneMementoSaver(CleanupMode cleanupMode) {
+        super(PriorityLane.local(), cleanupMode);
+    }
+
+}
@@ -1,29 +1,62 @@
 package example.threadstate.core.memento;
 
-public class ThreadLocalMementoSaver<T> implements ThreadStateMementoSaver {
+public class ThreadLocalMementoSaver<T> implements ValueMementoSaver<T> {
 
     private final ThreadLocal<T> local;
 
+    private final CleanupMode cleanupMode;
+
     public ThreadLocalMementoSaver(ThreadLocal<T> local) {
+        this(local, CleanupMode.REMOVE);
+    }
+
+    public ThreadLocalMementoSaver(ThreadLocal<T> local, CleanupMode cleanupMode) {
         this.local = local;
+        this.cleanupMode = cleanupMode;
     }
 
     @Override
-    public ThreadStateMemento save() {
-        final T savedValue = local.get();
-        return new ThreadStateMemento() {
+    public T capture() {
+        return local.get();
+    }
 
-            @Override
-            public void restore() {
-                local.set(savedValue);
-            }
+    @Override
+    public Object epoch() {
+        final T value = local.get();
+        return value != null ? value : EMPTY_EPOCH;
+    }
+
+    @Override
+    public Object restore(T value) {
+        final T previous = local.get();
+        if (previous == value) {
+            return UNCHANGED;
+        }
+        set(value);
+        return previous;
+    }
 
-            @Override
-            public void cleanup() {
-                local.remove();
+    @Override
+    @SuppressWarnings("unchecked")
+    public void cleanup(T value, Object previous) {
+        if (previous == UNCHANGED) {
+            // The thread held the captured value before: only put it back if the task changed it
+            if (local.get() != value) {
+                set(value);
             }
+        } else if (cleanupMode == CleanupMode.RESET) {
+            set((T) previous);
+        } else {
+            local.remove();
+        }
+    }
 
-        };
+    private void set(T value) {
+        if (value == null) {
+            local.remove();
+        } else {
+            local.set(value);
+        }
     }
 
 }
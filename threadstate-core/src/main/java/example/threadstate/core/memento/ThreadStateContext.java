@@ -0,0 +1,110 @@
+package example.threadstate.core.memento;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Per-thread store of values indexed by statically assigned slots, held by a single thread local.
+// Values are copied on write once shared, so a snapshot is captured and restored by reference.
+public final class ThreadStateContext {
+
+    private static final Object[] EMPTY = new Object[0];
+
+    private static final AtomicInteger SLOT_COUNT = new AtomicInteger();
+
+    private static final ThreadLocal<ThreadStateContext> CURRENT = ThreadLocal.withInitial(ThreadStateContext::new);
+
+    private Object[] values = EMPTY;
+
+    private boolean shared;
+
+    private ThreadStateContext() {
+    }
+
+    public static <T> Slot<T> newSlot() {
+        return new Slot<>(SLOT_COUNT.getAndIncrement(), () -> null);
+    }
+
+    public static <T> Slot<T> newSlot(Supplier<? extends T> initialValue) {
+        return new Slot<>(SLOT_COUNT.getAndIncrement(), initialValue);
+    }
+
+    static ThreadStateContext current() {
+        return CURRENT.get();
+    }
+
+    Object[] share() {
+        shared = true;
+        return values;
+    }
+
+    Object[] values() {
+        return values;
+    }
+
+    void install(Object[] newValues) {
+        values = newValues;
+        shared = true;
+    }
+
+    void clear() {
+        values = EMPTY;
+        shared = false;
+    }
+
+    private Object get(int index) {
+        final Object[] currentValues = values;
+        return index < currentValues.length ? currentValues[index] : null;
+    }
+
+    private void set(int index, Object value) {
+        if (shared || index >= values.length) {
+            values = Arrays.copyOf(values, Math.max(values.length, SLOT_COUNT.get()));
+            shared = false;
+        }
+        values[index] = value;
+    }
+
+    // Thread local backed by a slot of the current thread context, so that it's propagated by
+    // ThreadStateContextMementoSaver
+    public static final class Slot<T> extends ThreadLocal<T> {
+
+        private final int index;
+
+        private final Supplier<? extends T> initialValue;
+
+        private Slot(int index, Supplier<? extends T> initialValue) {
+            this.index = index;
+            this.initialValue = initialValue;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get() {
+            final ThreadStateContext context = current();
+            T value = (T) context.get(index);
+            if (value == null) {
+                value = initialValue.get();
+                if (value != null) {
+                    context.set(index, value);
+                }
+            }
+            return value;
+        }
+
+        @Override
+        public void set(T value) {
+            current().set(index, value);
+        }
+
+        @Override
+        public void remove() {
+            final ThreadStateContext context = current();
+            if (context.get(index) != null) {
+                context.set(index, null);
+            }
+        }
+
+    }
+
+}
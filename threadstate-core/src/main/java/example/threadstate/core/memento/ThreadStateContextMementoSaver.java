@@ -0,0 +1,69 @@
+package example.threadstate.core.memento;
+
+// Propagates all the slots of the ThreadStateContext at once
+public class ThreadStateContextMementoSaver implements ValueMementoSaver<Object[]> {
+
+    private final CleanupMode cleanupMode;
+
+    public ThreadStateContextMementoSaver() {
+        this(CleanupMode.REMOVE);
+    }
+
+    public ThreadStateContextMementoSaver(CleanupMode cleanupMode) {
+        this.cleanupMode = cleanupMode;
+    }
+
+    @Override
+    public Object[] capture() {
+        return ThreadStateContext.current().share();
+    }
+
+    @Override
+    public boolean isPresent(Object[] values) {
+        for (final Object value : values) {
+            if (value != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Object epoch() {
+        // Shared values are copied on write
+        return ThreadStateContext.current().values();
+    }
+
+    @Override
+    public Object restore(Object[] values) {
+        final ThreadStateContext context = ThreadStateContext.current();
+        final Object[] previous = context.values();
+        if (previous == values) {
+            return UNCHANGED;
+        }
+
+        install(context, values);
+        return cleanupMode == CleanupMode.RESET ? previous : null;
+    }
+
+    @Override
+    public void cleanup(Object[] values, Object previous) {
+        final ThreadStateContext context = ThreadStateContext.current();
+        if (previous == UNCHANGED) {
+            if (context.values() != values) {
+                install(context, values);
+            }
+        } else {
+            install(context, (Object[]) previous);
+        }
+    }
+
+    private static void install(ThreadStateContext context, Object[] values) {
+        if (values == null) {
+            context.clear();
+        } else {
+            context.install(values);
+        }
+    }
+
+}
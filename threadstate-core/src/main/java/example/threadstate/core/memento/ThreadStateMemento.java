@@ -6,4 +6,15 @@ public interface ThreadStateMemento {
 
     void cleanup();
 
+    // Whether restoring the other memento would restore the same state, so that restoring one of them is enough
+    default boolean isSameState(ThreadStateMemento other) {
+        return this == other;
+    }
+
+    // Returns a memento of the same captured state, which can be restored on another thread at the same time as
+    // this one. Mementos without restore state can be shared as is.
+    default ThreadStateMemento copy() {
+        return this;
+    }
+
 }
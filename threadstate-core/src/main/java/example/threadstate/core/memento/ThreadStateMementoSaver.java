@@ -1,14 +1,29 @@
 package example.threadstate.core.memento;
 
 import java.util.Arrays;
+import java.util.Collections;
 
 @FunctionalInterface
 public interface ThreadStateMementoSaver {
 
+    // Epoch of a state without any value
+    Object EMPTY_EPOCH = new Object();
+
     ThreadStateMemento save();
 
+    // Cheap marker of the state to save: as long as it returns the same marker on a thread, save() would capture
+    // the same state. Null if the saver can't tell.
+    default Object epoch() {
+        return null;
+    }
+
     default ThreadStateMementoSaver andThen(ThreadStateMementoSaver other) {
         return new CompositeThreadStateMementoSaver(Arrays.asList(this, other));
     }
 
+    // Saver reusing the last memento saved by the current thread, while the epochs of the savers don't change
+    default ThreadStateMementoSaver cached() {
+        return new CompositeThreadStateMementoSaver(Collections.singletonList(this), true);
+    }
+
 }
@@ -0,0 +1,33 @@
+package example.threadstate.core.memento;
+
+// Captures the thread state as a single value, so that composite savers can store it in an array
+public interface ValueMementoSaver<T> extends ThreadStateMementoSaver {
+
+    // Returned by restore() when the thread already holds the captured value. It's still handed back to cleanup(),
+    // which must then put the captured value back if the task changed it.
+    Object UNCHANGED = new Object();
+
+    T capture();
+
+    // Absent values are not kept by mementos: null is restored instead, which must clear the state of the thread
+    default boolean isPresent(T value) {
+        return value != null;
+    }
+
+    // Returns the value handed back to cleanup(), typically the previous state of the thread
+    Object restore(T value);
+
+    void cleanup(T value, Object previous);
+
+    // Called when a memento is copied: stateful values, e.g. mementos, must return a copy
+    default T copy(T value) {
+        return value;
+    }
+
+    @Override
+    default ThreadStateMemento save() {
+        final T value = capture();
+        return new ValueThreadStateMemento<>(this, isPresent(value) ? value : null);
+    }
+
+}
@@ -0,0 +1,40 @@
+package example.threadstate.core.memento;
+
+final class ValueThreadStateMemento<T> implements ThreadStateMemento {
+
+    private final ValueMementoSaver<T> saver;
+
+    private final T value;
+
+    private Object previous;
+
+    public ValueThreadStateMemento(ValueMementoSaver<T> saver, T value) {
+        this.saver = saver;
+        this.value = value;
+    }
+
+    @Override
+    public void restore() {
+        previous = saver.restore(value);
+    }
+
+    @Override
+    public void cleanup() {
+        saver.cleanup(value, previous);
+    }
+
+    @Override
+    public boolean isSameState(ThreadStateMemento other) {
+        if (!(other instanceof ValueThreadStateMemento)) {
+            return false;
+        }
+        final ValueThreadStateMemento<?> that = (ValueThreadStateMemento<?>) other;
+        return that.saver == saver && that.value == value;
+    }
+
+    @Override
+    public ThreadStateMemento copy() {
+        return new ValueThreadStateMemento<>(saver, value != null ? saver.copy(value) : null);
+    }
+
+}
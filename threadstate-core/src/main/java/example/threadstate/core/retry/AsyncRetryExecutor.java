@@ -1,6 +1,8 @@
 package example.threadstate.core.retry;
 
 import example.threadstate.core.concurrent.CompletableFutures;
+import example.threadstate.core.memento.Deadline;
+import example.threadstate.core.memento.DeadlineExceededException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -52,9 +54,15 @@ public class AsyncRetryExecutor {
     }
 
     public <T> CompletableFuture<T> execute(final Supplier<T> supplier) {
-        return CompletableFuture.supplyAsync(supplier, primaryExecutor)
+        // Retries run on other threads: the deadline of the caller is captured here
+        final Deadline deadline = Deadline.current();
+        if (deadline != null && deadline.isExpired()) {
+            return CompletableFutures.completedExceptionally(new AbortRetryException(new DeadlineExceededException(deadline)));
+        }
+
+        return CompletableFutures.supplyAsync(supplier, primaryExecutor)
             .thenApply(CompletableFuture::completedFuture)
-            .exceptionally(e -> handleException(supplier, 1, e))
+            .exceptionally(e -> handleException(supplier, deadline, 1, e))
             .thenCompose(Function.identity());
     }
 
@@ -65,7 +73,12 @@ public class AsyncRetryExecutor {
         });
     }
 
-    private <T> CompletableFuture<T> handleException(final Supplier<T> supplier, final int retryCount, final Throwable exception) {
+    private <T> CompletableFuture<T> handleException(
+        final Supplier<T> supplier,
+        final Deadline deadline,
+        final int retryCount,
+        final Throwable exception
+    ) {
         final Throwable realException = CompletableFutures.unwrapException(exception);
 
         if (realException instanceof Error || abortRetryPredicate.test((Exception) realException)) {
@@ -73,6 +86,15 @@ public class AsyncRetryExecutor {
             return CompletableFutures.completedExceptionally(new AbortRetryException(realException));
         }
 
+        if (deadline != null && deadline.isExpired()) {
+            LOGGER.debug("Failed to execute task, will not retry after deadline", realException);
+            final DeadlineExceededException deadlineException = new DeadlineExceededException(deadline);
+            if (!(realException instanceof DeadlineExceededException)) {
+                deadlineException.addSuppressed(realException);
+            }
+            return CompletableFutures.completedExceptionally(new AbortRetryException(deadlineException));
+        }
+
         final OptionalLong waitDurationMs = retryPolicy.getWaitTime(retryCount);
         if (!waitDurationMs.isPresent()) {
             LOGGER.debug("Failed to execute task, got to max retries count of {}", retryCount - 1, realException);
@@ -81,9 +103,15 @@ public class AsyncRetryExecutor {
 
         LOGGER.debug("Failed to execute task, retrying after {} ms", waitDurationMs.getAsLong(), realException);
         return CompletableFutures.await(scheduledExecutor, waitDurationMs.getAsLong(), TimeUnit.MILLISECONDS)
-            .thenApplyAsync(ignored -> supplier.get(), retryExecutor)
+            .thenCompose(ignored -> {
+                // The deadline may have been exceeded while waiting
+                if (deadline != null) {
+                    deadline.check();
+                }
+                return CompletableFutures.supplyAsync(supplier, retryExecutor);
+            })
             .thenApply(CompletableFuture::completedFuture)
-            .exceptionally(e -> handleException(supplier, retryCount + 1, e))
+            .exceptionally(e -> handleException(supplier, deadline, retryCount + 1, e))
             .thenCompose(Function.identity());
     }
 
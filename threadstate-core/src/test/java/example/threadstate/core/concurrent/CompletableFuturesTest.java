@@ -2,7 +2,9 @@ package example.threadstate.core.concurrent;
 
 import javaslang.control.Try;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -13,12 +15,22 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static example.threadstate.core.concurrent.CompletableFutures.*;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.data.Percentage.withPercentage;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 
 public class CompletableFuturesTest {
 
@@ -81,6 +93,87 @@ public class CompletableFuturesTest {
         assertThat(merged).isNotDone();
     }
 
+    @Test
+    public void should_return_items_in_list_order_on_merge_completed_in_reverse_order() throws Exception {
+        // given
+        final List<CompletableFuture<Integer>> futures = IntStream.range(0, 100_000)
+            .mapToObj(i -> new CompletableFuture<Integer>())
+            .collect(Collectors.toList());
+
+        // when
+        final CompletableFuture<List<Integer>> merged = merge(futures);
+        for (int i = futures.size() - 1; i >= 0; i--) {
+            futures.get(i).complete(i);
+        }
+
+        // then
+        assertThat(merged).isCompletedWithValue(IntStream.range(0, 100_000).boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void should_fail_with_first_failure_in_list_order_on_merge() throws Exception {
+        // given
+        final Exception exception1 = new Exception();
+        final Exception exception2 = new Exception();
+        final CompletableFuture<Object> future1 = new CompletableFuture<>();
+        final CompletableFuture<Object> future2 = new CompletableFuture<>();
+        final CompletableFuture<Object> future3 = new CompletableFuture<>();
+
+        // when
+        final CompletableFuture<List<Object>> merged = merge(Arrays.asList(future1, future2, future3));
+        future3.completeExceptionally(exception2);
+        future2.completeExceptionally(exception1);
+        final boolean doneBeforeLast = merged.isDone();
+        future1.complete(new Object());
+        final Throwable mergedException = catchThrowable(merged::join);
+
+        // then
+        assertThat(doneBeforeLast).isFalse();
+        assertThat(mergedException).isInstanceOf(CompletionException.class).hasCause(exception1);
+    }
+
+    @Test
+    public void should_fail_on_first_failure_and_cancel_others_on_merge_fail_fast() throws Exception {
+        // given
+        final Exception exception = new Exception();
+        final CompletableFuture<Object> future1 = new CompletableFuture<>();
+        final CompletableFuture<Object> future2 = new CompletableFuture<>();
+
+        // when
+        final CompletableFuture<List<Object>> merged = mergeFailFast(Arrays.asList(future1, future2), true);
+        future2.completeExceptionally(exception);
+        final Throwable mergedException = catchThrowable(merged::join);
+
+        // then
+        assertThat(mergedException).isInstanceOf(CompletionException.class).hasCause(exception);
+        assertThat(future1.isCancelled()).isTrue();
+        assertThat(exception.getSuppressed()).isEmpty();
+    }
+
+    @Test
+    public void should_attach_later_failures_as_suppressed_on_merge_map_fail_fast() throws Exception {
+        // given
+        final Exception exception1 = new Exception();
+        final Exception exception2 = new Exception();
+        final Map<String, CompletableFuture<Integer>> futures = new HashMap<>();
+        futures.put("A", new CompletableFuture<>());
+        futures.put("B", new CompletableFuture<>());
+        futures.put("C", new CompletableFuture<>());
+
+        // when
+        final CompletableFuture<Map<String, Integer>> merged = mergeMapFailFast(futures);
+        futures.get("B").completeExceptionally(exception1);
+        final boolean doneOnFirstFailure = merged.isDone();
+        futures.get("C").completeExceptionally(exception2);
+        final Throwable mergedException = catchThrowable(merged::join);
+
+        // then
+        assertThat(doneOnFirstFailure).isTrue();
+        assertThat(mergedException).hasCause(exception1);
+        assertThat(exception1.getSuppressed()).containsExactly(exception2);
+        assertThat(futures.get("A").isDone()).isFalse();
+    }
+
     @Test
     public void should_return_map_on_merge_map_with_multiple_items() throws Exception {
         // given
@@ -114,6 +207,68 @@ public class CompletableFuturesTest {
         assertThat(merged).isCompletedWithValue(Collections.emptyMap());
     }
 
+    @Test
+    public void should_map_async_within_window_in_input_order() throws Exception {
+        // given
+        final List<CompletableFuture<Integer>> started = new ArrayList<>();
+
+        // when
+        final CompletableFuture<List<Integer>> mapped = mapAsync(Arrays.asList(1, 2, 3, 4, 5), input -> {
+            final CompletableFuture<Integer> future = new CompletableFuture<>();
+            started.add(future);
+            return future;
+        }, 2);
+        final int startedBeforeCompletion = started.size();
+        started.get(1).complete(20);
+        started.get(0).complete(10);
+        started.get(3).complete(40);
+        started.get(2).complete(30);
+        started.get(4).complete(50);
+
+        // then
+        assertThat(startedBeforeCompletion).isEqualTo(2);
+        assertThat(mapped).isCompletedWithValue(Arrays.asList(10, 20, 30, 40, 50));
+    }
+
+    @Test
+    public void should_map_async_completed_futures_without_recursion() throws Exception {
+        // given
+        final List<Integer> inputs = IntStream.range(0, 100_000).boxed().collect(Collectors.toList());
+
+        // when
+        final CompletableFuture<List<Integer>> mapped = mapAsync(inputs, CompletableFuture::completedFuture, 4);
+
+        // then
+        assertThat(mapped).isCompletedWithValue(inputs);
+    }
+
+    @Test
+    public void should_not_start_inputs_after_failure_on_map_async() throws Exception {
+        // given
+        final Exception exception = new Exception();
+        final List<Integer> startedInputs = new ArrayList<>();
+
+        // when
+        final CompletableFuture<List<Object>> mapped = mapAsync(Arrays.asList(1, 2, 3), input -> {
+            startedInputs.add(input);
+            return input == 2 ? completedExceptionally(exception) : new CompletableFuture<>();
+        }, 2);
+        final Throwable mappedException = catchThrowable(mapped::join);
+
+        // then
+        assertThat(mappedException).isInstanceOf(CompletionException.class).hasCause(exception);
+        assertThat(startedInputs).isEqualTo(Arrays.asList(1, 2));
+    }
+
+    @Test
+    public void should_return_empty_list_on_map_async_empty() throws Exception {
+        // when
+        final CompletableFuture<List<Object>> mapped = mapAsync(Collections.emptyList(), CompletableFuture::completedFuture, 1);
+
+        // then
+        assertThat(mapped).isCompletedWithValueMatching(List::isEmpty, "empty list");
+    }
+
     @Test(timeout = 1000L)
     public void should_await() throws Exception {
         // given
@@ -133,6 +288,87 @@ public class CompletableFuturesTest {
         assertThat(durationMs).isCloseTo(waitTimeMs, withPercentage(20));
     }
 
+    @Test
+    public void should_cancel_await_timer_when_future_is_completed() throws Exception {
+        // given
+        final ScheduledThreadPoolExecutor scheduledExecutor = new ScheduledThreadPoolExecutor(1);
+
+        // when
+        final CompletableFuture<Object> future = await(scheduledExecutor, 1, TimeUnit.HOURS);
+        future.complete("VALUE");
+
+        // then
+        assertThat(scheduledExecutor.getQueue().size()).isEqualTo(0);
+        scheduledExecutor.shutdown();
+    }
+
+    @Test
+    public void should_complete_before_timeout_and_cancel_timer() throws Exception {
+        // given
+        final ScheduledThreadPoolExecutor scheduledExecutor = new ScheduledThreadPoolExecutor(1);
+        final CompletableFuture<String> future = new CompletableFuture<>();
+
+        // when
+        final CompletableFuture<String> timed = withTimeout(future, 1, TimeUnit.HOURS, scheduledExecutor);
+        future.complete("VALUE");
+
+        // then
+        assertThat(timed).isCompletedWithValue("VALUE");
+        assertThat(scheduledExecutor.getQueue().size()).isEqualTo(0);
+        scheduledExecutor.shutdown();
+    }
+
+    @Test
+    public void should_return_new_future_without_timer_when_already_completed() throws Exception {
+        // given
+        final ScheduledExecutorService scheduledExecutor = mock(ScheduledExecutorService.class);
+        final CompletableFuture<String> future = CompletableFuture.completedFuture("VALUE");
+
+        // when
+        final CompletableFuture<String> timed = withTimeout(future, 1, TimeUnit.HOURS, scheduledExecutor);
+
+        // then
+        assertThat(timed).isNotSameAs(future).isCompletedWithValue("VALUE");
+        verifyZeroInteractions(scheduledExecutor);
+    }
+
+    @Test(timeout = 1000L)
+    public void should_fail_on_timeout_and_cancel_future() throws Exception {
+        // given
+        final ScheduledExecutorService scheduledExecutor = mock(ScheduledExecutorService.class);
+        final ScheduledFuture<?> timer = mock(ScheduledFuture.class);
+        final ArgumentCaptor<Runnable> timeoutTask = ArgumentCaptor.forClass(Runnable.class);
+        doReturn(timer).when(scheduledExecutor).schedule(timeoutTask.capture(), eq(10L), eq(TimeUnit.MILLISECONDS));
+        final CompletableFuture<String> future = new CompletableFuture<>();
+
+        // when
+        final CompletableFuture<String> timed = withTimeout(future, 10, TimeUnit.MILLISECONDS, scheduledExecutor, true);
+        final boolean doneBeforeTimeout = timed.isDone();
+        timeoutTask.getValue().run();
+        final Throwable exception = catchThrowable(timed::join);
+
+        // then
+        assertThat(doneBeforeTimeout).isFalse();
+        assertThat(exception).isInstanceOf(CompletionException.class).hasCauseInstanceOf(TimeoutException.class);
+        assertThat(future.isCancelled()).isTrue();
+        verify(timer).cancel(false);
+    }
+
+    @Test(timeout = 1000L)
+    public void should_complete_with_value_on_timeout() throws Exception {
+        // given
+        final ScheduledExecutorService scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+        final CompletableFuture<String> future = new CompletableFuture<>();
+
+        // when
+        final CompletableFuture<String> timed = completeOnTimeout(future, "DEFAULT", 10, TimeUnit.MILLISECONDS, scheduledExecutor);
+
+        // then
+        assertThat(timed.join()).isEqualTo("DEFAULT");
+        assertThat(future.isDone()).isFalse();
+        scheduledExecutor.shutdown();
+    }
+
     @Test
     public void should_complete_exceptionally() throws Exception {
         // given
@@ -0,0 +1,119 @@
+package example.threadstate.core.concurrent;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HashedWheelTimerTest {
+
+    private final HashedWheelTimer timer = new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 8, Thread::new);
+
+    @After
+    public void shutdownTimer() throws Exception {
+        timer.shutdownNow();
+    }
+
+    @Test
+    public void should_run_task_after_delay() throws Exception {
+        // given
+        final long start = System.nanoTime();
+
+        // when
+        final ScheduledFuture<Long> future = timer.schedule(System::nanoTime, 20, TimeUnit.MILLISECONDS);
+
+        // then
+        assertThat(TimeUnit.NANOSECONDS.toMillis(future.get() - start)).isGreaterThanOrEqualTo(20);
+    }
+
+    @Test
+    public void should_run_task_after_several_rounds_of_the_wheel() throws Exception {
+        // given
+        final CountDownLatch latch = new CountDownLatch(2);
+        final long start = System.nanoTime();
+
+        // when
+        timer.schedule(latch::countDown, 30, TimeUnit.MILLISECONDS);
+        timer.schedule(latch::countDown, 3, TimeUnit.MILLISECONDS);
+
+        // then
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(30);
+        assertThat(timer.getScheduledCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void should_not_run_cancelled_task() throws Exception {
+        // given
+        final AtomicInteger runs = new AtomicInteger();
+        final ScheduledFuture<?> future = timer.schedule(runs::incrementAndGet, 10, TimeUnit.MILLISECONDS);
+
+        // when
+        future.cancel(false);
+        Thread.sleep(30);
+
+        // then
+        assertThat(future.isCancelled()).isTrue();
+        assertThat(runs.get()).isEqualTo(0);
+        assertThat(timer.getScheduledCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void should_run_periodic_task_until_shutdown() throws Exception {
+        // given
+        final CountDownLatch latch = new CountDownLatch(3);
+        final ScheduledFuture<?> future = timer.scheduleAtFixedRate(latch::countDown, 0, 2, TimeUnit.MILLISECONDS);
+
+        // when
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        timer.shutdown();
+
+        // then
+        assertThat(timer.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(future.isCancelled()).isTrue();
+    }
+
+    @Test
+    public void should_run_delayed_tasks_after_shutdown() throws Exception {
+        // given
+        final ScheduledFuture<String> future = timer.schedule(() -> "done", 10, TimeUnit.MILLISECONDS);
+
+        // when
+        timer.shutdown();
+
+        // then
+        assertThat(future.get(1, TimeUnit.SECONDS)).isEqualTo("done");
+        assertThat(timer.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void should_return_remaining_tasks_on_shutdown_now() throws Exception {
+        // given
+        timer.schedule(() -> {
+        }, 1, TimeUnit.HOURS);
+
+        // when
+        final List<Runnable> remaining = timer.shutdownNow();
+
+        // then
+        assertThat(remaining).hasSize(1);
+        assertThat(timer.isTerminated()).isTrue();
+    }
+
+    @Test
+    public void should_complete_await_on_timer() throws Exception {
+        // when
+        final CompletableFuture<Object> future = CompletableFutures.await(timer, 5, TimeUnit.MILLISECONDS);
+
+        // then
+        assertThat(future.get(1, TimeUnit.SECONDS)).isNull();
+    }
+
+}
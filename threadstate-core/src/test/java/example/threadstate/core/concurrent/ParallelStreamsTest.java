@@ -0,0 +1,84 @@
+package example.threadstate.core.concurrent;
+
+import example.threadstate.core.memento.MementoTaskWrapper;
+import example.threadstate.core.memento.ThreadLocalMementoSaver;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ParallelStreamsTest {
+
+    private final ThreadLocal<Object> local = new ThreadLocal<>();
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    private final MementoTaskWrapper taskWrapper = new MementoTaskWrapper(new ThreadLocalMementoSaver<>(local));
+
+    @After
+    public void tearDown() throws Exception {
+        local.remove();
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void should_run_pipeline_on_pool_with_state() throws Exception {
+        // given
+        final Object value = new Object();
+        local.set(value);
+        final List<Integer> source = IntStream.range(0, 10_000).boxed().collect(Collectors.toList());
+
+        // when
+        final long matching = ParallelStreams.run(pool, taskWrapper, source, stream -> stream
+            .filter(i -> local.get() == value)
+            .filter(i -> ((ForkJoinWorkerThread) Thread.currentThread()).getPool() == pool)
+            .count()
+        );
+
+        // then
+        assertThat(matching).isEqualTo(10_000);
+        assertThat(local.get()).isSameAs(value);
+    }
+
+    @Test
+    public void should_run_short_circuiting_pipeline_with_state() throws Exception {
+        // given
+        final Object value = new Object();
+        local.set(value);
+        final List<Integer> source = IntStream.range(0, 10_000).boxed().collect(Collectors.toList());
+
+        // when
+        final boolean allMatch = ParallelStreams.run(pool, taskWrapper, source, stream -> stream.allMatch(i -> local.get() == value));
+
+        // then
+        assertThat(allMatch).isTrue();
+    }
+
+    @Test
+    public void should_run_stages_before_sorted_with_state_only() throws Exception {
+        // given
+        final Object value = new Object();
+        local.set(value);
+        final List<Integer> source = IntStream.range(0, 10_000).boxed().collect(Collectors.toList());
+
+        // when
+        final List<Boolean> withState = ParallelStreams.run(pool, taskWrapper, source, stream -> stream
+            .filter(i -> local.get() == value)
+            .sorted()
+            .map(i -> local.get() == value)
+            .distinct()
+            .collect(Collectors.toList())
+        );
+
+        // then
+        assertThat(withState).containsExactly(false);
+        assertThat(local.get()).isSameAs(value);
+    }
+
+}
@@ -0,0 +1,175 @@
+package example.threadstate.core.executors;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.withSettings;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AdaptiveConcurrencyLimitExecutorServiceTest {
+
+    @Mock
+    private ExecutorService delegate;
+
+    private final Deque<Runnable> submitted = new ArrayDeque<>();
+
+    @Test
+    public void should_queue_then_reject_tasks_over_limit() throws Exception {
+        // given
+        doAnswer(invocation -> submitted.add((Runnable) invocation.getArguments()[0])).when(delegate).execute(any());
+        final AdaptiveConcurrencyLimitExecutorService executor = new AdaptiveConcurrencyLimitExecutorService(
+            delegate, 2, 2, 2, 1, TimeUnit.MINUTES, 1
+        );
+        final AtomicInteger runCount = new AtomicInteger();
+
+        // when
+        executor.execute(runCount::incrementAndGet);
+        executor.execute(runCount::incrementAndGet);
+        executor.execute(runCount::incrementAndGet);
+        final Throwable exception = catchThrowable(() -> executor.execute(runCount::incrementAndGet));
+        final int submittedBeforeCompletion = submitted.size();
+        final int queueSizeBeforeCompletion = executor.getQueueSize();
+        submitted.poll().run();
+
+        // then
+        assertThat(exception).isInstanceOf(RejectedExecutionException.class);
+        assertThat(submittedBeforeCompletion).isEqualTo(2);
+        assertThat(queueSizeBeforeCompletion).isEqualTo(1);
+        assertThat(submitted).hasSize(2);
+        assertThat(executor.getQueueSize()).isZero();
+        assertThat(executor.getInFlight()).isEqualTo(2);
+        assertThat(runCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_shed_queued_task_rejected_by_delegate() throws Exception {
+        // given
+        doAnswer(invocation -> submitted.add((Runnable) invocation.getArguments()[0]))
+            .doThrow(new RejectedExecutionException("Delegate is saturated"))
+            .when(delegate).execute(any());
+        final AdaptiveConcurrencyLimitExecutorService executor = new AdaptiveConcurrencyLimitExecutorService(
+            delegate, 1, 1, 1, 1, TimeUnit.MINUTES, 1
+        );
+        final Runnable queuedTask = mock(Runnable.class, withSettings().extraInterfaces(Sheddable.class));
+
+        // when
+        executor.execute(() -> {
+        });
+        executor.execute(queuedTask);
+        final Throwable exception = catchThrowable(() -> submitted.poll().run());
+
+        // then
+        assertThat(exception).isNull();
+        verify((Sheddable) queuedTask).shed(any(RejectedExecutionException.class));
+        verify(queuedTask, never()).run();
+        assertThat(executor.getQueueSize()).isZero();
+        assertThat(executor.getInFlight()).isZero();
+    }
+
+    @Test
+    public void should_drain_queue_within_limit_before_shutting_delegate_down() throws Exception {
+        // given
+        doAnswer(invocation -> submitted.add((Runnable) invocation.getArguments()[0])).when(delegate).execute(any());
+        final AdaptiveConcurrencyLimitExecutorService executor = new AdaptiveConcurrencyLimitExecutorService(
+            delegate, 1, 1, 1, 1, TimeUnit.MINUTES, 2
+        );
+        final AtomicInteger runCount = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            executor.execute(runCount::incrementAndGet);
+        }
+
+        // when
+        executor.shutdown();
+        final int submittedOnShutdown = submitted.size();
+        final Throwable exception = catchThrowable(() -> executor.execute(runCount::incrementAndGet));
+        submitted.poll().run();
+        submitted.poll().run();
+        verify(delegate, never()).shutdown();
+        submitted.poll().run();
+
+        // then
+        assertThat(submittedOnShutdown).isEqualTo(1);
+        assertThat(exception).isInstanceOf(RejectedExecutionException.class);
+        assertThat(runCount.get()).isEqualTo(3);
+        verify(delegate).shutdown();
+    }
+
+    @Test
+    public void should_be_reachable_behind_delegated_executor() throws Exception {
+        // given
+        final AdaptiveConcurrencyLimitExecutorService executor = new AdaptiveConcurrencyLimitExecutorService(delegate);
+
+        // when
+        final DelegatedExecutorService delegatedExecutor = new DelegatedExecutorService(executor, TaskWrapper.identity());
+
+        // then
+        assertThat(delegatedExecutor.unwrap(AdaptiveConcurrencyLimitExecutorService.class)).isSameAs(executor);
+        assertThat(delegatedExecutor.unwrap(ExecutorService.class)).isSameAs(executor);
+    }
+
+    @Test
+    public void should_decrease_limit_when_tasks_are_slow() throws Exception {
+        // given
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArguments()[0]).run();
+            return null;
+        }).when(delegate).execute(any());
+        final AdaptiveConcurrencyLimitExecutorService executor = new AdaptiveConcurrencyLimitExecutorService(
+            delegate, 1, 10, 10, 1, TimeUnit.NANOSECONDS, 0
+        );
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            executor.execute(() -> sleepQuietly(1));
+        }
+
+        // then
+        assertThat(executor.getLimit()).isLessThan(10);
+    }
+
+    @Test
+    public void should_increase_limit_when_tasks_are_fast() throws Exception {
+        // given
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArguments()[0]).run();
+            return null;
+        }).when(delegate).execute(any());
+        final AdaptiveConcurrencyLimitExecutorService executor = new AdaptiveConcurrencyLimitExecutorService(
+            delegate, 1, 1, 10, 1, TimeUnit.MINUTES, 0
+        );
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            executor.execute(() -> {
+            });
+        }
+
+        // then
+        assertThat(executor.getLimit()).isGreaterThan(1);
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
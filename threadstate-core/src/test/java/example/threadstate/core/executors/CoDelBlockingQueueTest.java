@@ -0,0 +1,169 @@
+package example.threadstate.core.executors;
+
+import example.threadstate.core.concurrent.CompletableFutures;
+import example.threadstate.core.memento.MementoTaskWrapper;
+import example.threadstate.core.memento.ThreadLocalMementoSaver;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class CoDelBlockingQueueTest {
+
+    @Test
+    public void should_drop_tasks_when_sojourn_time_stays_above_target() throws Exception {
+        // given
+        final CoDelBlockingQueue queue = new CoDelBlockingQueue(1, 5, TimeUnit.MILLISECONDS);
+        final List<RejectedExecutionException> shed = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            queue.offer(new SheddableTask(shed));
+        }
+
+        // when
+        Thread.sleep(10);
+        final Runnable first = queue.poll();
+        Thread.sleep(10);
+        final Runnable second = queue.poll();
+
+        // then
+        assertThat(first).isNotNull();
+        assertThat(second).isNull();
+        assertThat(shed).hasSize(2);
+        assertThat(queue.isDropping()).isTrue();
+    }
+
+    @Test
+    public void should_admit_tasks_again_once_drained_after_overload() throws Exception {
+        // given
+        final CoDelBlockingQueue queue = new CoDelBlockingQueue(1, 5, TimeUnit.MILLISECONDS);
+        final List<RejectedExecutionException> shed = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            queue.offer(new SheddableTask(shed));
+        }
+        Thread.sleep(10);
+        queue.poll();
+        Thread.sleep(10);
+        queue.poll();
+        final boolean droppingAfterOverload = queue.isDropping();
+
+        // when
+        final Runnable task = new SheddableTask(shed);
+        final boolean offered = queue.offer(task);
+        final Runnable polled = queue.poll();
+
+        // then
+        assertThat(droppingAfterOverload).isTrue();
+        assertThat(offered).isTrue();
+        assertThat(polled).isSameAs(task);
+        assertThat(queue.isDropping()).isFalse();
+        assertThat(shed).hasSize(2);
+    }
+
+    @Test
+    public void should_not_drop_tasks_under_target() throws Exception {
+        // given
+        final CoDelBlockingQueue queue = new CoDelBlockingQueue(1, 1, TimeUnit.MINUTES);
+        final List<RejectedExecutionException> shed = new ArrayList<>();
+        queue.offer(new SheddableTask(shed));
+        queue.offer(new SheddableTask(shed));
+
+        // when
+        final Runnable first = queue.poll();
+        final Runnable second = queue.poll();
+
+        // then
+        assertThat(first).isNotNull();
+        assertThat(second).isNotNull();
+        assertThat(shed).isEmpty();
+    }
+
+    @Test
+    public void should_complete_dropped_futures_exceptionally() throws Exception {
+        // given
+        final CoDelThreadPoolExecutor pool = new CoDelThreadPoolExecutor(1, 1, 1, TimeUnit.MILLISECONDS, Executors.defaultThreadFactory());
+        // A present state, so that dropped tasks are wrapped
+        final ThreadLocal<Object> local = ThreadLocal.withInitial(Object::new);
+        final ExecutorService executor = new DelegatedExecutorService(pool, new MementoTaskWrapper(new ThreadLocalMementoSaver<>(local)));
+        final CountDownLatch blocker = new CountDownLatch(1);
+        executor.execute(() -> awaitQuietly(blocker));
+
+        try {
+            // when
+            final List<Future<?>> futures = new ArrayList<>();
+            final List<CompletableFuture<?>> completableFutures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(executor.submit(() -> sleepQuietly(2)));
+                completableFutures.add(CompletableFutures.runAsync(() -> sleepQuietly(2), executor));
+            }
+            Thread.sleep(20);
+            blocker.countDown();
+
+            // then
+            int dropped = 0;
+            for (final Future<?> future : futures) {
+                final Throwable exception = catchThrowable(() -> future.get(10, TimeUnit.SECONDS));
+                if (exception != null) {
+                    assertThat(exception).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(RejectedExecutionException.class);
+                    dropped++;
+                }
+            }
+            for (final CompletableFuture<?> future : completableFutures) {
+                final Throwable exception = catchThrowable(() -> future.get(10, TimeUnit.SECONDS));
+                if (exception != null) {
+                    assertThat(exception).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(RejectedExecutionException.class);
+                    dropped++;
+                }
+            }
+            assertThat(dropped).isGreaterThan(0);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class SheddableTask implements Runnable, Sheddable {
+
+        private final List<RejectedExecutionException> shed;
+
+        SheddableTask(List<RejectedExecutionException> shed) {
+            this.shed = shed;
+        }
+
+        @Override
+        public void run() {
+        }
+
+        @Override
+        public void shed(RejectedExecutionException exception) {
+            shed.add(exception);
+        }
+
+    }
+
+}
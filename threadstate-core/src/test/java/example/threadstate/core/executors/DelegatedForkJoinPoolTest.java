@@ -0,0 +1,120 @@
+package example.threadstate.core.executors;
+
+import example.threadstate.core.memento.MementoTaskWrapper;
+import example.threadstate.core.memento.ThreadLocalMementoSaver;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DelegatedForkJoinPoolTest {
+
+    private static final ThreadLocal<Object> LOCAL = new ThreadLocal<>();
+
+    private final ForkJoinPool delegate = new ForkJoinPool(4);
+
+    private final AtomicInteger restoreCount = new AtomicInteger();
+
+    private final ForkJoinPool pool = new DelegatedForkJoinPool(delegate, new MementoTaskWrapper(new ThreadLocalMementoSaver<Object>(LOCAL) {
+
+        @Override
+        public Object restore(Object value) {
+            restoreCount.incrementAndGet();
+            return super.restore(value);
+        }
+
+    }));
+
+    @After
+    public void tearDown() throws Exception {
+        LOCAL.remove();
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void should_propagate_state_to_forked_subtasks() throws Exception {
+        // given
+        final Object value = new Object();
+        LOCAL.set(value);
+        final AtomicInteger taskCount = new AtomicInteger();
+
+        // when
+        final CountingTask task = new CountingTask(value, 0, 1 << 16, taskCount);
+        final int matching = pool.invoke(task);
+
+        // then
+        assertThat(matching).isEqualTo(1 << 16);
+        // Restored once for the submitted task, then once per stolen subtask only
+        assertThat(restoreCount.get()).isLessThan(taskCount.get());
+    }
+
+    @Test
+    public void should_run_submitted_runnables_with_state() throws Exception {
+        // given
+        final Object value = new Object();
+        LOCAL.set(value);
+        final Object[] seen = new Object[1];
+
+        // when
+        final ForkJoinTask<?> task = pool.submit(() -> {
+            seen[0] = LOCAL.get();
+        });
+        task.join();
+
+        // then
+        assertThat(seen[0]).isSameAs(value);
+    }
+
+    @Test
+    public void should_forward_pool_api_to_delegate() throws Exception {
+        assertThat(pool.getParallelism()).isEqualTo(4);
+        pool.shutdown();
+        assertThat(delegate.isShutdown()).isTrue();
+    }
+
+    private static final class CountingTask extends ScopedRecursiveTask<Integer> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Object expected;
+
+        private final int from;
+
+        private final int to;
+
+        private final AtomicInteger taskCount;
+
+        CountingTask(Object expected, int from, int to, AtomicInteger taskCount) {
+            this.expected = expected;
+            this.from = from;
+            this.to = to;
+            this.taskCount = taskCount;
+        }
+
+        @Override
+        protected Integer compute() {
+            taskCount.incrementAndGet();
+            if (to - from <= 16) {
+                int matching = 0;
+                for (int i = from; i < to; i++) {
+                    if (LOCAL.get() == expected) {
+                        matching++;
+                    }
+                }
+                return matching;
+            }
+
+            final int middle = (from + to) >>> 1;
+            final CountingTask left = new CountingTask(expected, from, middle, taskCount);
+            left.fork();
+            final int right = new CountingTask(expected, middle, to, taskCount).compute();
+            return right + left.join();
+        }
+
+    }
+
+}
@@ -0,0 +1,171 @@
+package example.threadstate.core.executors;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class PriorityLaneBlockingQueueTest {
+
+    @Test
+    public void should_dequeue_lanes_by_weight() throws Exception {
+        // given
+        final PriorityLaneBlockingQueue queue = new PriorityLaneBlockingQueue(new int[] {3, 1}, TestTask::lane);
+        for (int i = 0; i < 8; i++) {
+            queue.offer(new TestTask(1));
+        }
+        for (int i = 0; i < 6; i++) {
+            queue.offer(new TestTask(0));
+        }
+
+        // when
+        final List<Integer> dequeuedLanes = new ArrayList<>();
+        Runnable task;
+        while ((task = queue.poll()) != null) {
+            dequeuedLanes.add(((TestTask) task).lane);
+        }
+
+        // then
+        assertThat(dequeuedLanes).containsExactly(0, 0, 1, 0, 0, 0, 1, 0, 1, 1, 1, 1, 1, 1);
+    }
+
+    @Test
+    public void should_not_bank_credits_of_idle_lanes() throws Exception {
+        // given
+        final PriorityLaneBlockingQueue queue = new PriorityLaneBlockingQueue(new int[] {1, 1}, TestTask::lane);
+        for (int i = 0; i < 4; i++) {
+            queue.offer(new TestTask(1));
+        }
+        queue.poll();
+        queue.poll();
+
+        // when
+        queue.offer(new TestTask(0));
+        queue.offer(new TestTask(0));
+        final List<Integer> dequeuedLanes = new ArrayList<>();
+        Runnable task;
+        while ((task = queue.poll()) != null) {
+            dequeuedLanes.add(((TestTask) task).lane);
+        }
+
+        // then
+        assertThat(dequeuedLanes).containsExactly(0, 1, 0, 1);
+    }
+
+    @Test
+    public void should_track_depth_and_wait_time_per_lane() throws Exception {
+        // given
+        final List<Integer> notifiedLanes = new ArrayList<>();
+        final PriorityLaneBlockingQueue queue = new PriorityLaneBlockingQueue(new int[] {1, 1}, TestTask::lane);
+        queue.setWaitTimeListener((lane, waitNanos) -> notifiedLanes.add(lane));
+        queue.offer(new TestTask(1));
+        queue.offer(new TestTask(1));
+
+        // when
+        Thread.sleep(10);
+        queue.take();
+
+        // then
+        assertThat(queue.getQueueDepth(0)).isEqualTo(0);
+        assertThat(queue.getQueueDepth(1)).isEqualTo(1);
+        assertThat(queue.getDequeuedCount(1)).isEqualTo(1);
+        assertThat(queue.getMaxWaitTime(1, TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(10);
+        assertThat(queue.getTotalWaitTime(0, TimeUnit.NANOSECONDS)).isEqualTo(0);
+        assertThat(notifiedLanes).containsExactly(1);
+    }
+
+    @Test
+    public void should_run_tasks_in_submitted_or_supplied_lane() throws Exception {
+        // given
+        final PriorityLaneExecutorService executor = new PriorityLaneExecutorService(1, new int[] {4, 1}, () -> 1, Thread::new);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        // when
+        final List<Future<?>> futures = new ArrayList<>();
+        try {
+            executor.execute(0, () -> {
+                started.countDown();
+                try {
+                    latch.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            futures.add(executor.submit(() -> null));
+            futures.add(executor.submit(0, () -> null));
+            futures.add(executor.submit(0, () -> {
+            }));
+            started.await();
+
+            // then
+            assertThat(executor.getLanes().getQueueDepth(0)).isEqualTo(2);
+            assertThat(executor.getLanes().getQueueDepth(1)).isEqualTo(1);
+        } finally {
+            latch.countDown();
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+            executor.shutdown();
+        }
+        assertThat(executor.getLanes().getDequeuedCount(0)).isEqualTo(3);
+        assertThat(executor.getLanes().getDequeuedCount(1)).isEqualTo(1);
+    }
+
+    @Test
+    public void should_fail_submitted_future_when_shed() throws Exception {
+        // given
+        final PriorityLaneExecutorService executor = new PriorityLaneExecutorService(1, new int[] {4, 1}, () -> 1, Thread::new);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch latch = new CountDownLatch(1);
+        executor.execute(0, () -> {
+            started.countDown();
+            try {
+                latch.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        final Future<Object> future = executor.submit(1, () -> null);
+        started.await();
+
+        // when
+        final List<Runnable> remaining = executor.shutdownNow();
+        for (final Runnable task : remaining) {
+            Sheddable.shed(task, new RejectedExecutionException("Executor is shut down"));
+        }
+        latch.countDown();
+        final Throwable exception = catchThrowable(() -> future.get(10, TimeUnit.SECONDS));
+
+        // then
+        assertThat(remaining).hasSize(1);
+        assertThat(exception).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(RejectedExecutionException.class);
+    }
+
+    private static final class TestTask implements Runnable {
+
+        private final int lane;
+
+        TestTask(int lane) {
+            this.lane = lane;
+        }
+
+        static int lane(Runnable task) {
+            return ((TestTask) task).lane;
+        }
+
+        @Override
+        public void run() {
+        }
+
+    }
+
+}
@@ -0,0 +1,103 @@
+package example.threadstate.core.executors;
+
+import example.threadstate.core.memento.MementoTaskWrapper;
+import example.threadstate.core.memento.PriorityLane;
+import example.threadstate.core.memento.PriorityLaneMementoSaver;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PriorityLaneExecutorServiceTest {
+
+    private final PriorityLaneExecutorService pool = new PriorityLaneExecutorService(
+        1, new int[] {1, 1}, PriorityLane::current, Executors.defaultThreadFactory()
+    );
+
+    private final DelegatedExecutorService executor = new DelegatedExecutorService(
+        pool, new MementoTaskWrapper(new PriorityLaneMementoSaver())
+    );
+
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private final CountDownLatch released = new CountDownLatch(1);
+
+    @Before
+    public void setUp() throws Exception {
+        // The only worker is kept busy, so that the next tasks stay queued in their lane
+        executor.execute(() -> {
+            started.countDown();
+            awaitQuietly(released);
+        });
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        released.countDown();
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void should_queue_task_in_lane_of_submitting_thread() throws Exception {
+        // when
+        PriorityLane.runIn(PriorityLane.BACKGROUND, () -> executor.execute(() -> {
+        }));
+
+        // then
+        assertThat(pool.getLanes().getQueueDepth(PriorityLane.BACKGROUND)).isEqualTo(1);
+        assertThat(pool.getLanes().getQueueDepth(PriorityLane.INTERACTIVE)).isEqualTo(0);
+    }
+
+    @Test
+    public void should_queue_nested_task_in_lane_restored_from_memento() throws Exception {
+        // given
+        released.countDown();
+        final CountDownLatch nestedQueued = new CountDownLatch(1);
+        final CountDownLatch nestedReleased = new CountDownLatch(1);
+
+        // when
+        PriorityLane.runIn(PriorityLane.BACKGROUND, () -> executor.execute(() -> {
+            executor.execute(() -> {
+            });
+            nestedQueued.countDown();
+            awaitQuietly(nestedReleased);
+        }));
+
+        // then
+        assertThat(nestedQueued.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(pool.getLanes().getQueueDepth(PriorityLane.BACKGROUND)).isEqualTo(1);
+        assertThat(pool.getLanes().getQueueDepth(PriorityLane.INTERACTIVE)).isEqualTo(0);
+        nestedReleased.countDown();
+    }
+
+    @Test
+    public void should_submit_in_given_lane_through_wrapper() throws Exception {
+        // when
+        final Future<Integer> future = PriorityLane.supplyIn(
+            PriorityLane.BACKGROUND, () -> executor.submit(PriorityLane::current)
+        );
+        final int depth = pool.getLanes().getQueueDepth(PriorityLane.BACKGROUND);
+        released.countDown();
+
+        // then
+        assertThat(depth).isEqualTo(1);
+        assertThat(future.get(1, TimeUnit.SECONDS)).isEqualTo(PriorityLane.BACKGROUND);
+        assertThat(PriorityLane.current()).isEqualTo(PriorityLane.INTERACTIVE);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,192 @@
+package example.threadstate.core.executors;
+
+import example.threadstate.core.memento.MementoTaskWrapper;
+import example.threadstate.core.memento.ThreadLocalMementoSaver;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class RingBufferExecutorServiceTest {
+
+    private RingBufferExecutorService executor;
+
+    @After
+    public void tearDown() throws Exception {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void should_run_tasks_from_many_producers() throws Exception {
+        // given
+        executor = new RingBufferExecutorService(2, 1024, Executors.defaultThreadFactory());
+        final ExecutorService producers = Executors.newFixedThreadPool(4);
+        final int taskCount = 100_000;
+        final AtomicInteger runCount = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(taskCount);
+
+        // when
+        try {
+            for (int p = 0; p < 4; p++) {
+                producers.execute(() -> {
+                    for (int i = 0; i < taskCount / 4; i++) {
+                        submitWithRetry(() -> {
+                            runCount.incrementAndGet();
+                            latch.countDown();
+                        });
+                    }
+                });
+            }
+
+            // then
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(runCount.get()).isEqualTo(taskCount);
+        } finally {
+            producers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void should_propagate_state_as_delegate() throws Exception {
+        // given
+        executor = new RingBufferExecutorService(2, 16, Executors.defaultThreadFactory());
+        final ThreadLocal<Object> local = new ThreadLocal<>();
+        final ExecutorService delegated = new DelegatedExecutorService(executor, new MementoTaskWrapper(new ThreadLocalMementoSaver<>(local)));
+        final Object value = new Object();
+
+        // when
+        local.set(value);
+        final Future<Object> future = delegated.submit(local::get);
+
+        // then
+        assertThat(future.get(10, TimeUnit.SECONDS)).isSameAs(value);
+    }
+
+    @Test
+    public void should_reject_tasks_when_buffers_are_full() throws Exception {
+        // given
+        executor = new RingBufferExecutorService(1, 2, Executors.defaultThreadFactory());
+        final CountDownLatch blocker = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            awaitQuietly(blocker);
+        });
+        started.await();
+
+        // when
+        executor.execute(() -> {
+        });
+        executor.execute(() -> {
+        });
+        final Throwable exception = catchThrowable(() -> executor.execute(() -> {
+        }));
+        blocker.countDown();
+
+        // then
+        assertThat(exception).isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    public void should_run_queued_tasks_on_shutdown() throws Exception {
+        // given
+        executor = new RingBufferExecutorService(1, 16, Executors.defaultThreadFactory());
+        final CountDownLatch blocker = new CountDownLatch(1);
+        final List<Integer> executions = new ArrayList<>();
+        executor.execute(() -> awaitQuietly(blocker));
+        for (int i = 0; i < 10; i++) {
+            final int index = i;
+            executor.execute(() -> executions.add(index));
+        }
+
+        // when
+        executor.shutdown();
+        final Throwable exception = catchThrowable(() -> executor.execute(() -> {
+        }));
+        blocker.countDown();
+
+        // then
+        assertThat(exception).isInstanceOf(RejectedExecutionException.class);
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(executions).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+    }
+
+    @Test
+    public void should_return_queued_tasks_on_shutdown_now_without_waiting_for_running_task() throws Exception {
+        // given
+        executor = new RingBufferExecutorService(1, 16, Executors.defaultThreadFactory());
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch blocker = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            // Ignores interrupts, as tasks may do
+            while (blocker.getCount() > 0) {
+                awaitQuietly(blocker);
+            }
+        });
+        started.await();
+        for (int i = 0; i < 3; i++) {
+            executor.execute(() -> {
+            });
+        }
+
+        // when
+        final List<Runnable> remaining = executor.shutdownNow();
+        final boolean terminatedBeforeRelease = executor.isTerminated();
+        blocker.countDown();
+
+        // then
+        assertThat(remaining).hasSize(3);
+        assertThat(terminatedBeforeRelease).isFalse();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void should_keep_running_tasks_after_error() throws Exception {
+        // given
+        executor = new RingBufferExecutorService(1, 16, Executors.defaultThreadFactory());
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        // when
+        executor.execute(() -> {
+            throw new AssertionError("Task error");
+        });
+        executor.execute(latch::countDown);
+
+        // then
+        assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private void submitWithRetry(Runnable task) {
+        while (true) {
+            try {
+                executor.execute(task);
+                return;
+            } catch (RejectedExecutionException e) {
+                Thread.yield();
+            }
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
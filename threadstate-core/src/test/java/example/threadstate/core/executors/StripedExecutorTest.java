@@ -0,0 +1,145 @@
+package example.threadstate.core.executors;
+
+import example.threadstate.core.memento.MementoTaskWrapper;
+import example.threadstate.core.memento.ThreadLocalMementoSaver;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class StripedExecutorTest {
+
+    private final ThreadLocal<Object> local = new ThreadLocal<>();
+
+    private final AtomicInteger cleanupCount = new AtomicInteger();
+
+    private final TaskWrapper taskWrapper = new MementoTaskWrapper(new ThreadLocalMementoSaver<Object>(local) {
+
+        @Override
+        public void cleanup(Object value, Object previous) {
+            // Nested tasks found the state already restored: their cleanup only checks it wasn't changed
+            if (previous != UNCHANGED) {
+                cleanupCount.incrementAndGet();
+            }
+            super.cleanup(value, previous);
+        }
+
+    });
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(4);
+
+    @After
+    public void tearDown() throws Exception {
+        local.remove();
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void should_run_tasks_of_same_key_in_order() throws Exception {
+        // given
+        final StripedExecutor executor = new StripedExecutor(pool, taskWrapper, 8);
+        final int keys = 16;
+        final int tasksPerKey = 500;
+        final List<List<Integer>> executions = new ArrayList<>();
+        for (int key = 0; key < keys; key++) {
+            executions.add(Collections.synchronizedList(new ArrayList<>()));
+        }
+        final CountDownLatch latch = new CountDownLatch(keys * tasksPerKey);
+
+        // when
+        for (int i = 0; i < tasksPerKey; i++) {
+            for (int key = 0; key < keys; key++) {
+                final int index = i;
+                final List<Integer> keyExecutions = executions.get(key);
+                executor.execute(key, () -> {
+                    keyExecutions.add(index);
+                    latch.countDown();
+                });
+            }
+        }
+
+        // then
+        assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        for (final List<Integer> keyExecutions : executions) {
+            assertThat(keyExecutions).hasSize(tasksPerKey).isSorted();
+        }
+    }
+
+    @Test
+    public void should_reschedule_lane_after_wrapper_failure() throws Exception {
+        // given
+        final Deque<Runnable> submitted = new ArrayDeque<>();
+        final AtomicInteger wrappedCount = new AtomicInteger();
+        final TaskWrapper failingWrapper = new TaskWrapper() {
+
+            @Override
+            public <T> Callable<T> wrap(Callable<T> callable) {
+                return callable;
+            }
+
+            @Override
+            public Runnable wrapRunnable(Runnable runnable) {
+                // Only the first task fails
+                if (wrappedCount.incrementAndGet() == 1) {
+                    return () -> {
+                        throw new IllegalStateException("Can't restore");
+                    };
+                }
+                return runnable;
+            }
+
+        };
+        final StripedExecutor executor = new StripedExecutor(submitted::add, failingWrapper, 1);
+        final List<Integer> executions = new ArrayList<>();
+
+        // when
+        executor.execute("KEY1", () -> executions.add(1));
+        executor.execute("KEY2", () -> executions.add(2));
+        final Throwable exception = catchThrowable(() -> submitted.poll().run());
+        while (!submitted.isEmpty()) {
+            submitted.poll().run();
+        }
+
+        // then
+        assertThat(exception).isInstanceOf(IllegalStateException.class);
+        assertThat(executions).containsExactly(2);
+    }
+
+    @Test
+    public void should_skip_restore_between_tasks_of_same_key_with_same_state() throws Exception {
+        // given
+        final Deque<Runnable> submitted = new ArrayDeque<>();
+        final StripedExecutor executor = new StripedExecutor(submitted::add, taskWrapper, 4);
+        final Object value = new Object();
+        final List<Object> seen = new ArrayList<>();
+
+        // when
+        local.set(value);
+        for (int i = 0; i < 5; i++) {
+            executor.forKey("key").execute(() -> seen.add(local.get()));
+        }
+        local.remove();
+        while (!submitted.isEmpty()) {
+            submitted.poll().run();
+        }
+
+        // then
+        assertThat(seen).hasSize(5).containsOnly(value);
+        assertThat(cleanupCount.get()).isEqualTo(1);
+        assertThat(local.get()).isNull();
+    }
+
+}
@@ -0,0 +1,151 @@
+package example.threadstate.core.executors;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.concurrent.Callable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TaskPipelineTest {
+
+    @Mock
+    private TaskWrapperTest.Watcher watcher1;
+
+    @Mock
+    private TaskWrapperTest.Watcher watcher2;
+
+    @Mock
+    private TaskWrapperTest.Watcher watcher3;
+
+    @Mock
+    private Callable<?> callable;
+
+    @Test
+    public void should_run_interceptors_in_order() throws Exception {
+        // given
+        final Object obj = new Object();
+        given(callable.call()).willReturn(obj);
+
+        // when
+        final TaskWrapper pipeline = TaskPipeline.of(new WatcherInterceptor(watcher1), new WatcherInterceptor(watcher2))
+            .then(new WatcherInterceptor(watcher3));
+        final Object callResult = pipeline.wrap(callable).call();
+
+        // then
+        assertThat(callResult).isSameAs(obj);
+
+        final InOrder inOrder = inOrder(watcher1, watcher2, watcher3, callable);
+        inOrder.verify(watcher1).begin();
+        inOrder.verify(watcher2).begin();
+        inOrder.verify(watcher3).begin();
+        inOrder.verify(callable).call();
+        inOrder.verify(watcher3).end();
+        inOrder.verify(watcher2).end();
+        inOrder.verify(watcher1).end();
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void should_fuse_pipelines() throws Exception {
+        // given
+        final TaskWrapper pipeline1 = TaskPipeline.of(new WatcherInterceptor(watcher1));
+        final TaskWrapper pipeline2 = TaskPipeline.of(new WatcherInterceptor(watcher2));
+
+        // when
+        final TaskWrapper fused = pipeline1.andThen(pipeline2);
+        fused.wrap(callable).call();
+
+        // then
+        assertThat(fused).isExactlyInstanceOf(TaskPipeline.class);
+
+        final InOrder inOrder = inOrder(watcher1, watcher2, callable);
+        inOrder.verify(watcher1).begin();
+        inOrder.verify(watcher2).begin();
+        inOrder.verify(callable).call();
+        inOrder.verify(watcher2).end();
+        inOrder.verify(watcher1).end();
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void should_only_call_after_for_successful_before() throws Exception {
+        // given
+        final IllegalStateException exception = new IllegalStateException();
+        willThrow(exception).given(watcher2).begin();
+
+        // when
+        final TaskWrapper pipeline = TaskPipeline.of(new WatcherInterceptor(watcher1), new WatcherInterceptor(watcher2));
+        try {
+            pipeline.wrap(callable).call();
+            fail("Exception expected");
+        } catch (IllegalStateException e) {
+            assertThat(e).isSameAs(exception);
+        }
+
+        // then
+        verify(watcher1).end();
+        verify(watcher2, never()).end();
+        verify(callable, never()).call();
+    }
+
+    @Test
+    public void should_skip_thread_state_interceptors_when_run_inline() throws Exception {
+        // given
+        final TaskInterceptor stateInterceptor = new WatcherInterceptor(watcher2) {
+
+            @Override
+            public boolean restoresThreadState() {
+                return true;
+            }
+
+        };
+        final Callable<?> wrapped = TaskPipeline.of(new WatcherInterceptor(watcher1), stateInterceptor).wrap(callable);
+
+        // when
+        ((SubmissionAware) wrapped).beforeSubmit();
+        try {
+            wrapped.call();
+        } finally {
+            ((SubmissionAware) wrapped).afterSubmit();
+        }
+
+        // then
+        verify(watcher1).begin();
+        verify(watcher1).end();
+        verify(watcher2, never()).begin();
+        verify(watcher2, never()).end();
+    }
+
+    private static class WatcherInterceptor implements TaskInterceptor {
+
+        private final TaskWrapperTest.Watcher watcher;
+
+        WatcherInterceptor(TaskWrapperTest.Watcher watcher) {
+            this.watcher = watcher;
+        }
+
+        @Override
+        public Object before(Object captured) {
+            watcher.begin();
+            return null;
+        }
+
+        @Override
+        public void after(Object captured, Object token) {
+            watcher.end();
+        }
+
+    }
+
+}
@@ -11,6 +11,8 @@ import java.util.concurrent.Callable;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
 
 @RunWith(MockitoJUnitRunner.class)
 public class TaskWrapperTest {
@@ -80,6 +82,55 @@ public class TaskWrapperTest {
         inOrder.verifyNoMoreInteractions();
     }
 
+    @Test
+    public void should_notify_inner_task_of_submission_when_chained() throws Exception {
+        // given
+        final Runnable innerTask = mock(Runnable.class, withSettings().extraInterfaces(SubmissionAware.class));
+        final TaskWrapper outerWrapper = new TaskWrapper() {
+
+            @Override
+            public <T> Callable<T> wrap(Callable<T> callable) {
+                return callable;
+            }
+
+            @Override
+            public Runnable wrapRunnable(Runnable runnable) {
+                return () -> {
+                    watcher1.begin();
+                    runnable.run();
+                };
+            }
+
+        };
+
+        final TaskWrapper innerWrapper = new TaskWrapper() {
+
+            @Override
+            public <T> Callable<T> wrap(Callable<T> callable) {
+                return callable;
+            }
+
+            @Override
+            public Runnable wrapRunnable(Runnable runnable) {
+                return innerTask;
+            }
+
+        };
+
+        // when
+        final DelegatedExecutor executor = new DelegatedExecutor(Runnable::run, outerWrapper.andThen(innerWrapper));
+        executor.execute(() -> {
+        });
+
+        // then
+        final InOrder inOrder = inOrder(watcher1, innerTask);
+        inOrder.verify((SubmissionAware) innerTask).beforeSubmit();
+        inOrder.verify(watcher1).begin();
+        inOrder.verify(innerTask).run();
+        inOrder.verify((SubmissionAware) innerTask).afterSubmit();
+        inOrder.verifyNoMoreInteractions();
+    }
+
     public interface Watcher {
 
         void begin();
@@ -0,0 +1,171 @@
+package example.threadstate.core.memento;
+
+import example.threadstate.core.executors.Sheddable;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.withSettings;
+
+public class BatchingMementoExecutorTest {
+
+    private final ThreadLocal<Object> local = new ThreadLocal<>();
+
+    private final AtomicInteger restoreCount = new AtomicInteger();
+
+    // Value failing on restore
+    private final Object unrestorable = new Object();
+
+    private final ThreadStateMementoSaver saver = new ThreadLocalMementoSaver<Object>(local) {
+
+        @Override
+        public Object restore(Object value) {
+            restoreCount.incrementAndGet();
+            if (value == unrestorable) {
+                throw new IllegalStateException("Can't restore");
+            }
+            return super.restore(value);
+        }
+
+    };
+
+    // Drainers submitted to the delegate, run by the test
+    private final Deque<Runnable> submitted = new ArrayDeque<>();
+
+    private final List<Object> seen = new ArrayList<>();
+
+    @After
+    public void tearDown() throws Exception {
+        local.remove();
+    }
+
+    @Test
+    public void should_restore_once_per_run_of_same_state_tasks() throws Exception {
+        // given
+        final BatchingMementoExecutor executor = new BatchingMementoExecutor(submitted::add, saver, 1, 64, 1, TimeUnit.MINUTES);
+        final Object value1 = new Object();
+        final Object value2 = new Object();
+
+        // when
+        submit(executor, value1, 5);
+        submit(executor, value2, 5);
+        runSubmitted();
+
+        // then
+        assertThat(restoreCount.get()).isEqualTo(2);
+        assertThat(seen).hasSize(10);
+        assertThat(seen.subList(0, 5)).containsOnly(value1);
+        assertThat(seen.subList(5, 10)).containsOnly(value2);
+        assertThat(local.get()).isNull();
+    }
+
+    @Test
+    public void should_split_batches_on_max_batch_size() throws Exception {
+        // given
+        final BatchingMementoExecutor executor = new BatchingMementoExecutor(submitted::add, saver, 1, 3, 1, TimeUnit.MINUTES);
+        final Object value = new Object();
+
+        // when
+        submit(executor, value, 10);
+        runSubmitted();
+
+        // then
+        assertThat(restoreCount.get()).isEqualTo(4);
+        assertThat(seen).hasSize(10).containsOnly(value);
+    }
+
+    @Test
+    public void should_keep_running_after_task_failure() throws Exception {
+        // given
+        final BatchingMementoExecutor executor = new BatchingMementoExecutor(submitted::add, saver, 1);
+
+        // when
+        executor.execute(() -> {
+            throw new IllegalStateException();
+        });
+        executor.execute(() -> seen.add(local.get()));
+        runSubmitted();
+
+        // then
+        assertThat(seen).hasSize(1);
+    }
+
+    @Test
+    public void should_shed_task_and_keep_running_after_restore_failure() throws Exception {
+        // given
+        final BatchingMementoExecutor executor = new BatchingMementoExecutor(submitted::add, saver, 1);
+        final Runnable unrestorableTask = mock(Runnable.class, withSettings().extraInterfaces(Sheddable.class));
+        final Object value = new Object();
+
+        // when
+        local.set(unrestorable);
+        executor.execute(unrestorableTask);
+        submit(executor, value, 2);
+        final Throwable exception = catchThrowable(this::runSubmitted);
+
+        // then
+        assertThat(exception).isNull();
+        assertThat(seen).hasSize(2).containsOnly(value);
+        verify((Sheddable) unrestorableTask).shed(any(RejectedExecutionException.class));
+        verify(unrestorableTask, never()).run();
+        assertThat(local.get()).isNull();
+    }
+
+    @Test
+    public void should_shed_queued_tasks_when_drainer_is_rejected() throws Exception {
+        // given
+        final AtomicInteger drainerCount = new AtomicInteger();
+        final Executor delegate = drainer -> {
+            if (drainerCount.incrementAndGet() > 1) {
+                throw new RejectedExecutionException("Delegate is saturated");
+            }
+            submitted.add(drainer);
+        };
+        final BatchingMementoExecutor executor = new BatchingMementoExecutor(delegate, saver, 1, 1, 1, TimeUnit.MINUTES);
+        final Runnable queuedTask1 = mock(Runnable.class, withSettings().extraInterfaces(Sheddable.class));
+        final Runnable queuedTask2 = mock(Runnable.class, withSettings().extraInterfaces(Sheddable.class));
+
+        // when
+        executor.execute(() -> seen.add(local.get()));
+        executor.execute(queuedTask1);
+        executor.execute(queuedTask2);
+        final Throwable exception = catchThrowable(this::runSubmitted);
+
+        // then
+        assertThat(exception).isNull();
+        assertThat(seen).hasSize(1);
+        verify((Sheddable) queuedTask1).shed(any(RejectedExecutionException.class));
+        verify((Sheddable) queuedTask2).shed(any(RejectedExecutionException.class));
+        verify(queuedTask1, never()).run();
+        verify(queuedTask2, never()).run();
+    }
+
+    private void submit(BatchingMementoExecutor executor, Object value, int count) {
+        local.set(value);
+        for (int i = 0; i < count; i++) {
+            executor.execute(() -> seen.add(local.get()));
+        }
+        local.remove();
+    }
+
+    private void runSubmitted() {
+        while (!submitted.isEmpty()) {
+            submitted.poll().run();
+        }
+    }
+
+}
@@ -1,16 +1,22 @@
 package example.threadstate.core.memento;
 
+import com.sun.management.ThreadMXBean;
+import org.junit.Assume;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.lang.management.ManagementFactory;
 import java.util.Arrays;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @RunWith(MockitoJUnitRunner.class)
 public class CompositeThreadStateMementoSaverTest {
@@ -27,6 +33,9 @@ public class CompositeThreadStateMementoSaverTest {
     @Mock
     private ThreadStateMemento memento2;
 
+    @Mock
+    private ValueMementoSaver<Object> valueSaver;
+
     @Test
     public void should_save_items_on_composite_save() throws Exception {
         // given
@@ -47,4 +56,164 @@ public class CompositeThreadStateMementoSaverTest {
         inOrder.verifyNoMoreInteractions();
     }
 
+    @Test
+    public void should_restore_value_savers_by_index() throws Exception {
+        // given
+        final Object value = new Object();
+        given(saver1.save()).willReturn(memento1);
+        given(valueSaver.capture()).willReturn(value);
+        given(valueSaver.isPresent(value)).willReturn(true);
+
+        // when
+        final ThreadStateMementoSaver compositeSaver = new CompositeThreadStateMementoSaver(Arrays.asList(saver1, valueSaver));
+        final ThreadStateMemento memento = compositeSaver.save();
+        memento.restore();
+        memento.cleanup();
+
+        // then
+        final InOrder inOrder = inOrder(saver1, valueSaver, memento1);
+        inOrder.verify(saver1).save();
+        inOrder.verify(valueSaver).capture();
+        inOrder.verify(memento1).restore();
+        inOrder.verify(valueSaver).restore(value);
+        inOrder.verify(valueSaver).cleanup(value, null);
+        inOrder.verify(memento1).cleanup();
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void should_cleanup_unchanged_values_as_unchanged() throws Exception {
+        // given
+        final Object value = new Object();
+        given(valueSaver.capture()).willReturn(value);
+        given(valueSaver.isPresent(value)).willReturn(true);
+        given(valueSaver.restore(value)).willReturn(ValueMementoSaver.UNCHANGED);
+
+        // when
+        final ThreadStateMementoSaver compositeSaver = new CompositeThreadStateMementoSaver(Arrays.asList(saver1, valueSaver));
+        given(saver1.save()).willReturn(memento1);
+        final ThreadStateMemento memento = compositeSaver.save();
+        memento.restore();
+        memento.cleanup();
+
+        // then
+        final InOrder inOrder = inOrder(valueSaver, memento1);
+        inOrder.verify(memento1).restore();
+        inOrder.verify(valueSaver).restore(value);
+        inOrder.verify(valueSaver).cleanup(value, ValueMementoSaver.UNCHANGED);
+        inOrder.verify(memento1).cleanup();
+    }
+
+    @Test
+    public void should_restore_absent_values_as_null() throws Exception {
+        // given
+        final Object value = new Object();
+        given(saver1.save()).willReturn(memento1);
+        given(valueSaver.capture()).willReturn(value);
+        given(valueSaver.isPresent(value)).willReturn(false);
+
+        // when
+        final ThreadStateMementoSaver compositeSaver = new CompositeThreadStateMementoSaver(Arrays.asList(saver1, valueSaver));
+        final ThreadStateMemento memento = compositeSaver.save();
+        memento.restore();
+        memento.cleanup();
+
+        // then
+        verify(memento1).restore();
+        verify(memento1).cleanup();
+        verify(valueSaver).restore(null);
+        verify(valueSaver).cleanup(null, null);
+    }
+
+    @Test
+    public void should_clear_thread_state_when_all_values_are_absent() throws Exception {
+        // given
+        final ThreadLocal<Object> local = new ThreadLocal<>();
+        final ThreadStateMementoSaver compositeSaver = new ThreadLocalMementoSaver<>(local).andThen(valueSaver);
+        final ThreadStateMemento memento = compositeSaver.save();
+        final ThreadStateMemento otherMemento = compositeSaver.save();
+        final Object leaked = new Object();
+        local.set(leaked);
+
+        // when
+        memento.restore();
+        final Object restoredValue = local.get();
+        memento.cleanup();
+
+        // then
+        assertThat(otherMemento).isSameAs(memento);
+        assertThat(restoredValue).isNull();
+        assertThat(local.get()).isNull();
+    }
+
+    @Test
+    public void should_reuse_cached_memento_while_epochs_are_unchanged() throws Exception {
+        // given
+        final ThreadLocal<Object> local = new ThreadLocal<>();
+        final ThreadStateMementoSaver compositeSaver = new ThreadLocalMementoSaver<>(local)
+            .andThen(valueSaver)
+            .cached();
+
+        final Object epoch = new Object();
+        given(valueSaver.epoch()).willReturn(epoch);
+
+        // when
+        compositeSaver.save();
+        compositeSaver.save();
+        local.set(new Object());
+        compositeSaver.save();
+
+        // then
+        verify(valueSaver, times(2)).capture();
+        verify(valueSaver, times(3)).epoch();
+    }
+
+    @Test
+    public void should_not_cache_memento_without_epoch() throws Exception {
+        // given
+        given(saver1.save()).willReturn(memento1);
+        final ThreadStateMementoSaver compositeSaver = new CompositeThreadStateMementoSaver(Arrays.asList(saver1, valueSaver)).cached();
+
+        // when
+        compositeSaver.save();
+        compositeSaver.save();
+
+        // then
+        verify(saver1, times(2)).save();
+        verify(valueSaver, times(2)).capture();
+    }
+
+    @Test
+    public void should_allocate_holder_and_array_only_on_save() throws Exception {
+        // Allocated bytes are only measured by the HotSpot bean
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof ThreadMXBean);
+        final ThreadMXBean allocationBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(allocationBean.isThreadAllocatedMemorySupported());
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+
+        // given
+        final ThreadStateMementoSaver compositeSaver = new ThreadLocalMementoSaver<>(ThreadLocal.withInitial(Object::new))
+            .andThen(new ThreadLocalMementoSaver<>(ThreadLocal.withInitial(Object::new)))
+            .andThen(new ThreadLocalMementoSaver<>(ThreadLocal.withInitial(Object::new)));
+
+        final int iterations = 200_000;
+        final ThreadStateMemento[] sink = new ThreadStateMemento[1];
+        for (int i = 0; i < iterations; i++) {
+            sink[0] = compositeSaver.save();
+        }
+
+        // when
+        final long threadId = Thread.currentThread().getId();
+        final long before = allocationBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            sink[0] = compositeSaver.save();
+        }
+        final long bytesPerSave = (allocationBean.getThreadAllocatedBytes(threadId) - before) / iterations;
+
+        // then
+        // Holder + Object[3]: 72 bytes with compressed oops, 96 bytes without
+        assertThat(sink[0]).isExactlyInstanceOf(CompositeThreadStateMemento.class);
+        assertThat(bytesPerSave).isLessThanOrEqualTo(96);
+    }
+
 }
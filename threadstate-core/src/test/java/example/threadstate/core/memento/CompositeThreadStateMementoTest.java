@@ -6,9 +6,12 @@ import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
-import static java.util.Arrays.asList;
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
@@ -25,10 +28,16 @@ public class CompositeThreadStateMementoTest {
     @Mock
     private ThreadStateMemento memento3;
 
+    @Mock
+    private ThreadStateMemento copiedMemento1;
+
+    @Mock
+    private ThreadStateMemento copiedMemento2;
+
     @Test
     public void should_restore_items_on_restore() throws Exception {
         // given
-        final ThreadStateMemento compositeMemento = new CompositeThreadStateMemento(asList(memento1, memento2, memento3));
+        final ThreadStateMemento compositeMemento = compose(memento1, memento2, memento3);
 
         // when
         compositeMemento.restore();
@@ -44,7 +53,7 @@ public class CompositeThreadStateMementoTest {
     @Test
     public void should_cleanup_items_on_cleanup() throws Exception {
         // given
-        final ThreadStateMemento compositeMemento = new CompositeThreadStateMemento(asList(memento1, memento2, memento3));
+        final ThreadStateMemento compositeMemento = compose(memento1, memento2, memento3);
 
         // when
         compositeMemento.cleanup();
@@ -60,7 +69,7 @@ public class CompositeThreadStateMementoTest {
     @Test
     public void should_cleanup_items_once() throws Exception {
         // given
-        final ThreadStateMemento compositeMemento = new CompositeThreadStateMemento(asList(memento1, memento2, memento3));
+        final ThreadStateMemento compositeMemento = compose(memento1, memento2, memento3);
 
         // when
         compositeMemento.cleanup();
@@ -77,7 +86,7 @@ public class CompositeThreadStateMementoTest {
     @Test
     public void should_ignore_exceptions_on_cleanup() throws Exception {
         // given
-        final ThreadStateMemento compositeMemento = new CompositeThreadStateMemento(asList(memento1, memento2, memento3));
+        final ThreadStateMemento compositeMemento = compose(memento1, memento2, memento3);
 
         doThrow(new RuntimeException()).when(memento2).cleanup();
 
@@ -94,7 +103,7 @@ public class CompositeThreadStateMementoTest {
 
     @Test
     public void should_cleanup_once_on_restore_failure() throws Exception {
-        final ThreadStateMemento compositeMemento = new CompositeThreadStateMemento(asList(memento1, memento2, memento3));
+        final ThreadStateMemento compositeMemento = compose(memento1, memento2, memento3);
 
         final RuntimeException exception = new RuntimeException();
         doThrow(exception).when(memento2).restore();
@@ -116,4 +125,57 @@ public class CompositeThreadStateMementoTest {
         inOrder.verifyNoMoreInteractions();
     }
 
+    @Test
+    public void should_restore_copy_independently() throws Exception {
+        // given
+        final ThreadStateMemento compositeMemento = compose(memento1, memento2);
+        given(memento1.copy()).willReturn(copiedMemento1);
+        given(memento2.copy()).willReturn(copiedMemento2);
+
+        // when
+        final ThreadStateMemento copy = compositeMemento.copy();
+        compositeMemento.restore();
+        compositeMemento.cleanup();
+        copy.restore();
+        copy.cleanup();
+
+        // then
+        assertThat(copy).isNotSameAs(compositeMemento);
+
+        final InOrder inOrder = inOrder(memento1, memento2, copiedMemento1, copiedMemento2);
+        inOrder.verify(memento1).restore();
+        inOrder.verify(memento2).restore();
+        inOrder.verify(memento2).cleanup();
+        inOrder.verify(memento1).cleanup();
+        inOrder.verify(copiedMemento1).restore();
+        inOrder.verify(copiedMemento2).restore();
+        inOrder.verify(copiedMemento2).cleanup();
+        inOrder.verify(copiedMemento1).cleanup();
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void should_keep_same_state_when_copied() throws Exception {
+        // given
+        final ThreadStateMemento compositeMemento = compose(memento1, memento2);
+        given(memento1.copy()).willReturn(copiedMemento1);
+        given(memento2.copy()).willReturn(memento2);
+        given(memento1.isSameState(copiedMemento1)).willReturn(true);
+
+        // when
+        final ThreadStateMemento copy = compositeMemento.copy();
+
+        // then
+        assertThat(compositeMemento.isSameState(copy)).isTrue();
+    }
+
+    // Built by the composite saver, which adapts savers of mementos
+    private static ThreadStateMemento compose(ThreadStateMemento... mementos) {
+        final List<ThreadStateMementoSaver> savers = new ArrayList<>();
+        for (final ThreadStateMemento memento : mementos) {
+            savers.add(() -> memento);
+        }
+        return new CompositeThreadStateMementoSaver(savers).save();
+    }
+
 }
@@ -0,0 +1,148 @@
+package example.threadstate.core.memento;
+
+import example.threadstate.core.executors.DelegatedExecutorService;
+import example.threadstate.core.executors.Sheddable;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.withSettings;
+
+public class DeadlineTaskWrapperTest {
+
+    private final DeadlineTaskWrapper taskWrapper = new DeadlineTaskWrapper();
+
+    @Test
+    public void should_not_wrap_without_deadline() throws Exception {
+        // given
+        final Runnable runnable = mock(Runnable.class);
+
+        // when
+        final Runnable wrapped = taskWrapper.wrapRunnable(runnable);
+
+        // then
+        assertThat(wrapped).isSameAs(runnable);
+    }
+
+    @Test
+    public void should_run_task_before_deadline() throws Exception {
+        // given
+        final Runnable runnable = mock(Runnable.class);
+        final Deadline deadline = Deadline.after(1, TimeUnit.HOURS);
+
+        // when
+        final Runnable[] wrapped = new Runnable[1];
+        Deadline.runWithin(deadline, () -> wrapped[0] = taskWrapper.wrapRunnable(runnable));
+        wrapped[0].run();
+
+        // then
+        verify(runnable).run();
+    }
+
+    @Test
+    public void should_fail_callable_after_deadline() throws Exception {
+        // given
+        @SuppressWarnings("unchecked")
+        final Callable<Object> callable = mock(Callable.class);
+        final Deadline deadline = Deadline.after(1, TimeUnit.HOURS);
+
+        // when
+        final Callable<?>[] wrapped = new Callable<?>[1];
+        Deadline.runWithin(deadline, () -> wrapped[0] = taskWrapper.wrap(callable));
+        deadline.cancel();
+        final Throwable exception = catchThrowable(wrapped[0]::call);
+
+        // then
+        assertThat(exception).isInstanceOf(DeadlineExceededException.class);
+        verify(callable, never()).call();
+    }
+
+    @Test
+    public void should_skip_runnable_after_deadline() throws Exception {
+        // given
+        final Runnable runnable = mock(Runnable.class);
+        final Deadline deadline = Deadline.after(0, TimeUnit.MILLISECONDS);
+
+        // when
+        final Runnable[] wrapped = new Runnable[1];
+        Deadline.runWithin(deadline, () -> wrapped[0] = taskWrapper.wrapRunnable(runnable));
+        wrapped[0].run();
+
+        // then
+        verify(runnable, never()).run();
+    }
+
+    @Test
+    public void should_fail_future_of_runnable_submitted_after_deadline() throws Exception {
+        // given
+        final Runnable runnable = mock(Runnable.class);
+        final Deadline deadline = Deadline.after(1, TimeUnit.HOURS);
+        final ExecutorService executor = new DelegatedExecutorService(Executors.newSingleThreadExecutor(), taskWrapper);
+
+        try {
+            // when
+            final List<Future<?>> futures = new ArrayList<>();
+            Deadline.runWithin(deadline, () -> {
+                deadline.cancel();
+                futures.add(executor.submit(runnable));
+            });
+            final Throwable exception = catchThrowable(() -> futures.get(0).get(10, TimeUnit.SECONDS));
+
+            // then
+            assertThat(exception).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(DeadlineExceededException.class);
+            verify(runnable, never()).run();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void should_complete_run_async_after_deadline() throws Exception {
+        // given
+        final Runnable runnable = mock(Runnable.class);
+        final Deadline deadline = Deadline.after(0, TimeUnit.MILLISECONDS);
+        final Executor executor = command -> taskWrapper.wrapRunnable(command).run();
+
+        // when
+        final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        Deadline.runWithin(deadline, () -> futures.add(CompletableFuture.runAsync(runnable, executor)));
+        futures.get(0).get(1, TimeUnit.SECONDS);
+
+        // then
+        verify(runnable).run();
+    }
+
+    @Test
+    public void should_shed_sheddable_runnable_after_deadline() throws Exception {
+        // given
+        final Runnable runnable = mock(Runnable.class, withSettings().extraInterfaces(Sheddable.class));
+        final Deadline deadline = Deadline.after(0, TimeUnit.MILLISECONDS);
+
+        // when
+        final Runnable[] wrapped = new Runnable[1];
+        Deadline.runWithin(deadline, () -> wrapped[0] = taskWrapper.bind().wrapRunnable(runnable));
+        wrapped[0].run();
+
+        // then
+        verify(runnable, never()).run();
+        verify((Sheddable) runnable).shed(any(RejectedExecutionException.class));
+        assertThat(Deadline.current()).isNull();
+    }
+
+}
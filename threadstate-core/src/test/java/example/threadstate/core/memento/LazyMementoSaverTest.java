@@ -0,0 +1,134 @@
+package example.threadstate.core.memento;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LazyMementoSaverTest {
+
+    private final ThreadLocal<String> source = new ThreadLocal<>();
+
+    private final ThreadLocal<String> target = new ThreadLocal<>();
+
+    private final ThreadLocal<Object> eager = new ThreadLocal<>();
+
+    private final UpperCaseMementoSaver saver = new UpperCaseMementoSaver();
+
+    @After
+    public void tearDown() throws Exception {
+        source.remove();
+        target.remove();
+        eager.remove();
+    }
+
+    @Test
+    public void should_materialize_on_restore_only() throws Exception {
+        // given
+        source.set("value");
+
+        // when
+        final ThreadStateMemento memento = saver.save();
+        final int materializedOnSave = saver.materialized.get();
+        memento.restore();
+        final String restoredValue = target.get();
+        memento.cleanup();
+
+        // then
+        assertThat(materializedOnSave).isZero();
+        assertThat(restoredValue).isEqualTo("VALUE");
+        assertThat(saver.materialized.get()).isEqualTo(1);
+        assertThat(target.get()).isNull();
+    }
+
+    @Test
+    public void should_clear_target_without_reference() throws Exception {
+        // given
+        final ThreadStateMemento memento = saver.save();
+        target.set("LEAKED");
+
+        // when
+        memento.restore();
+        final String restoredValue = target.get();
+        memento.cleanup();
+
+        // then
+        assertThat(restoredValue).isNull();
+        assertThat(saver.materialized.get()).isZero();
+    }
+
+    @Test
+    public void should_mix_eager_and_lazy_savers() throws Exception {
+        // given
+        final Object eagerValue = new Object();
+        source.set("value");
+        eager.set(eagerValue);
+        final ThreadStateMementoSaver compositeSaver = new ThreadLocalMementoSaver<>(eager).andThen(saver);
+
+        // when
+        final ThreadStateMemento memento = compositeSaver.save();
+        source.remove();
+        eager.remove();
+        memento.restore();
+        final Object restoredEagerValue = eager.get();
+        final String restoredLazyValue = target.get();
+        memento.cleanup();
+
+        // then
+        assertThat(restoredEagerValue).isSameAs(eagerValue);
+        assertThat(restoredLazyValue).isEqualTo("VALUE");
+        assertThat(eager.get()).isNull();
+        assertThat(target.get()).isNull();
+    }
+
+    @Test
+    public void should_materialize_once_for_bulk_submission() throws Exception {
+        // given
+        source.set("value");
+        final Callable<String> task = target::get;
+        final List<Callable<String>> wrapped = new MementoTaskWrapper(saver).wrapAll(Arrays.asList(task, task, task));
+
+        // when
+        for (final Callable<String> callable : wrapped) {
+            assertThat(callable.call()).isEqualTo("VALUE");
+        }
+
+        // then
+        assertThat(saver.materialized.get()).isEqualTo(1);
+    }
+
+    private class UpperCaseMementoSaver implements LazyMementoSaver<String, String> {
+
+        private final AtomicInteger materialized = new AtomicInteger();
+
+        @Override
+        public String reference() {
+            return source.get();
+        }
+
+        @Override
+        public String materialize(String reference) {
+            materialized.incrementAndGet();
+            return reference.toUpperCase();
+        }
+
+        @Override
+        public Object restoreMaterialized(String value) {
+            final String previous = target.get();
+            target.set(value);
+            return previous;
+        }
+
+        @Override
+        public void cleanupMaterialized(String value, Object previous) {
+            target.remove();
+        }
+
+    }
+
+}
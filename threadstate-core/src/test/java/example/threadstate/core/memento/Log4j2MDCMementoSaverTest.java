@@ -0,0 +1,82 @@
+package example.threadstate.core.memento;
+
+import org.apache.logging.log4j.ThreadContext;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+public class Log4j2MDCMementoSaverTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @After
+    public void tearDown() throws Exception {
+        ThreadContext.clearMap();
+
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    @Test
+    public void should_share_captured_context() throws Exception {
+        // given
+        ThreadContext.put("a", "1");
+
+        final Log4j2MDCMementoSaver saver = new Log4j2MDCMementoSaver();
+        final Map<String, String> captured = saver.capture();
+
+        // when
+        final Map<String, String> threadContext = executor.submit(() -> {
+            saver.restore(captured);
+            final Map<String, String> restoredContext = ThreadContext.getImmutableContext();
+            ThreadContext.put("b", "2");
+            return restoredContext;
+        }).get();
+
+        // then
+        assertThat(threadContext).isSameAs(captured);
+        assertThat(captured).containsOnly(entry("a", "1"));
+    }
+
+    @Test
+    public void should_cleanup_context() throws Exception {
+        // given
+        ThreadContext.put("a", "1");
+
+        final Log4j2MDCMementoSaver saver = new Log4j2MDCMementoSaver();
+        final ThreadStateMemento memento = saver.save();
+
+        // when
+        final boolean emptyContext = executor.submit(() -> {
+            memento.restore();
+            memento.cleanup();
+            return ThreadContext.isEmpty();
+        }).get();
+
+        // then
+        assertThat(emptyContext).isTrue();
+    }
+
+    @Test
+    public void should_not_restore_context_already_held_by_thread() throws Exception {
+        // given
+        ThreadContext.put("a", "1");
+
+        final Log4j2MDCMementoSaver saver = new Log4j2MDCMementoSaver();
+        final Map<String, String> captured = saver.capture();
+
+        // when
+        final Object previous = saver.restore(captured);
+
+        // then
+        assertThat(previous).isSameAs(ValueMementoSaver.UNCHANGED);
+    }
+
+}
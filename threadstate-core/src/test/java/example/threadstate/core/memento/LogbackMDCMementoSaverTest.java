@@ -0,0 +1,118 @@
+package example.threadstate.core.memento;
+
+import org.junit.After;
+import org.junit.Test;
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+public class LogbackMDCMementoSaverTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @After
+    public void tearDown() throws Exception {
+        MDC.clear();
+
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    @Test
+    public void should_be_selected_for_logback_binding() throws Exception {
+        // when
+        final MDCMementoSaver saver = MDCMementoSaver.forCurrentBinding();
+
+        // then
+        assertThat(saver).isExactlyInstanceOf(LogbackMDCMementoSaver.class);
+    }
+
+    @Test
+    public void should_share_captured_context() throws Exception {
+        // given
+        MDC.put("a", "1");
+
+        final LogbackMDCMementoSaver saver = new LogbackMDCMementoSaver();
+        final Map<String, String> captured = saver.capture();
+
+        // when
+        final Map<String, String> threadContext = executor.submit(() -> {
+            saver.restore(captured);
+            final Map<String, String> restoredContext = saver.capture();
+            MDC.put("b", "2");
+            return restoredContext;
+        }).get();
+        MDC.put("c", "3");
+
+        // then
+        assertThat(threadContext).isSameAs(captured);
+        assertThat(captured).containsOnly(entry("a", "1"));
+    }
+
+    @Test
+    public void should_cleanup_context() throws Exception {
+        // given
+        MDC.put("a", "1");
+
+        final LogbackMDCMementoSaver saver = new LogbackMDCMementoSaver();
+        final ThreadStateMemento memento = saver.save();
+
+        // when
+        final Map<String, String> threadContext = executor.submit(() -> {
+            memento.restore();
+            memento.cleanup();
+            return MDC.getCopyOfContextMap();
+        }).get();
+
+        // then
+        assertThat(threadContext).isNullOrEmpty();
+    }
+
+    @Test
+    public void should_reset_previous_context_with_reset_mode() throws Exception {
+        // given
+        MDC.put("a", "1");
+
+        final LogbackMDCMementoSaver saver = new LogbackMDCMementoSaver(CleanupMode.RESET);
+        final ThreadStateMemento memento = saver.save();
+
+        // when
+        final Map<String, String> threadContext = executor.submit(() -> {
+            MDC.put("b", "2");
+            memento.restore();
+            memento.cleanup();
+            return MDC.getCopyOfContextMap();
+        }).get();
+
+        // then
+        assertThat(threadContext).containsOnly(entry("b", "2"));
+    }
+
+    @Test
+    public void should_invalidate_cached_memento_on_mdc_change() throws Exception {
+        // given
+        MDC.put("a", "1");
+
+        final ThreadStateMementoSaver saver = new LogbackMDCMementoSaver().cached();
+        saver.save();
+
+        // when
+        MDC.put("CorrelationID", "42");
+        final ThreadStateMemento memento = saver.save();
+
+        final Map<String, String> threadContext = executor.submit(() -> {
+            memento.restore();
+            return MDC.getCopyOfContextMap();
+        }).get();
+
+        // then
+        assertThat(threadContext).containsOnly(entry("a", "1"), entry("CorrelationID", "42"));
+    }
+
+}
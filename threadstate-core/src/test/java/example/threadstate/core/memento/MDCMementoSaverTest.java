@@ -1,5 +1,6 @@
 package example.threadstate.core.memento;
 
+import example.threadstate.core.executors.DelegatedExecutorService;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -25,7 +26,11 @@ public class MDCMementoSaverTest {
 
     @After
     public void tearDown() throws Exception {
-        MDC.setContextMap(savedMdc);
+        if (savedMdc == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(savedMdc);
+        }
 
         executor.shutdown();
         executor.awaitTermination(1, TimeUnit.MINUTES);
@@ -90,6 +95,23 @@ public class MDCMementoSaverTest {
         assertThat(threadMdc).isNullOrEmpty();
     }
 
+    @Test
+    public void should_not_leak_mdc_between_tasks_submitted_without_mdc() throws Exception {
+        // given
+        MDC.clear();
+        final ExecutorService delegatedExecutor = new DelegatedExecutorService(
+            executor,
+            new MementoTaskWrapper(new MDCMementoSaver())
+        );
+
+        // when
+        delegatedExecutor.submit(() -> MDC.put("user", "alice")).get();
+        final String user = delegatedExecutor.submit(() -> MDC.get("user")).get();
+
+        // then
+        assertThat(user).isNull();
+    }
+
     private static void fillMDC() {
         MDC.put("a", "1");
         MDC.put("b", "2");
@@ -7,14 +7,29 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import example.threadstate.core.executors.DelegatedExecutor;
+import example.threadstate.core.executors.DelegatedExecutorService;
+import example.threadstate.core.executors.SubmissionAware;
+
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -99,4 +114,195 @@ public class MementoTaskWrapperTest {
         verify(memento, never()).cleanup();
     }
 
+    @Test
+    public void should_not_restore_nor_cleanup_when_run_inline_by_submitting_thread() throws Exception {
+        // given
+        given(saver.save()).willReturn(memento);
+
+        // when
+        final Callable<Void> wrapped = mementoTaskWrapper.wrap(callable);
+        ((SubmissionAware) wrapped).beforeSubmit();
+        wrapped.call();
+        ((SubmissionAware) wrapped).afterSubmit();
+
+        // then
+        final InOrder inOrder = inOrder(saver, memento, callable);
+        inOrder.verify(saver).save();
+        inOrder.verify(callable).call();
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void should_restore_and_cleanup_when_run_by_submitting_thread_after_submission() throws Exception {
+        // given
+        given(saver.save()).willReturn(memento);
+
+        // when
+        final Callable<Void> wrapped = mementoTaskWrapper.wrap(callable);
+        ((SubmissionAware) wrapped).beforeSubmit();
+        ((SubmissionAware) wrapped).afterSubmit();
+        wrapped.call();
+
+        // then
+        final InOrder inOrder = inOrder(saver, memento, callable);
+        inOrder.verify(saver).save();
+        inOrder.verify(memento).restore();
+        inOrder.verify(callable).call();
+        inOrder.verify(memento).cleanup();
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void should_wrap_runnable_without_exception_translation() throws Exception {
+        // given
+        given(saver.save()).willReturn(memento);
+
+        final IllegalStateException exception = new IllegalStateException();
+        final Runnable runnable = () -> {
+            throw exception;
+        };
+        final Runnable[] submitted = new Runnable[1];
+        final DelegatedExecutor executor = new DelegatedExecutor(command -> submitted[0] = command, mementoTaskWrapper);
+
+        // when
+        executor.execute(runnable);
+        final Throwable resultException = catchThrowable(submitted[0]::run);
+
+        // then
+        assertThat(submitted[0]).isExactlyInstanceOf(MementoRunnable.class);
+        assertThat(resultException).isSameAs(exception);
+
+        final InOrder inOrder = inOrder(saver, memento);
+        inOrder.verify(saver).save();
+        inOrder.verify(memento).restore();
+        inOrder.verify(memento).cleanup();
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void should_not_restore_nor_cleanup_on_direct_executor() throws Exception {
+        // given
+        given(saver.save()).willReturn(memento);
+
+        final Runnable runnable = () -> {
+        };
+        final DelegatedExecutor executor = new DelegatedExecutor(Runnable::run, mementoTaskWrapper);
+
+        // when
+        executor.execute(runnable);
+
+        // then
+        verify(saver).save();
+        verify(memento, never()).restore();
+        verify(memento, never()).cleanup();
+    }
+
+    @Test
+    public void should_not_restore_nor_cleanup_on_caller_runs_rejection() throws Exception {
+        // given
+        given(saver.save()).willReturn(memento);
+
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(
+            1, 1, 0, TimeUnit.MILLISECONDS,
+            new SynchronousQueue<>(),
+            new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+        final CountDownLatch latch = new CountDownLatch(1);
+        pool.execute(() -> {
+            try {
+                latch.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        final ExecutorService executor = new DelegatedExecutorService(pool, mementoTaskWrapper);
+        final Thread[] runningThread = new Thread[1];
+
+        // when
+        try {
+            executor.execute(() -> runningThread[0] = Thread.currentThread());
+        } finally {
+            latch.countDown();
+            pool.shutdown();
+        }
+
+        // then
+        assertThat(runningThread[0]).isSameAs(Thread.currentThread());
+        verify(saver).save();
+        verify(memento, never()).restore();
+        verify(memento, never()).cleanup();
+    }
+
+    @Test
+    public void should_save_once_and_restore_copies_on_wrap_all() throws Exception {
+        // given
+        final ThreadStateMemento copiedMemento = mock(ThreadStateMemento.class);
+        given(saver.save()).willReturn(memento);
+        given(memento.copy()).willReturn(copiedMemento);
+
+        // when
+        final List<Callable<Void>> wrapped = mementoTaskWrapper.wrapAll(Arrays.asList(callable, callable));
+        for (final Callable<Void> task : wrapped) {
+            task.call();
+        }
+
+        // then
+        verify(saver).save();
+        verify(memento).restore();
+        verify(memento).cleanup();
+        verify(copiedMemento).restore();
+        verify(copiedMemento).cleanup();
+        verify(callable, times(2)).call();
+    }
+
+    @Test
+    public void should_save_once_on_submit_all() throws Exception {
+        // given
+        given(saver.save()).willReturn(memento);
+        given(memento.copy()).willReturn(memento);
+
+        final ExecutorService pool = Executors.newFixedThreadPool(2);
+        final DelegatedExecutorService executor = new DelegatedExecutorService(pool, mementoTaskWrapper);
+
+        // when
+        final List<Future<Void>> futures;
+        try {
+            futures = executor.submitAll(Arrays.asList(callable, callable, callable));
+            for (final Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        // then
+        assertThat(futures).hasSize(3);
+        verify(saver).save();
+        verify(memento, times(2)).copy();
+        verify(memento, times(3)).restore();
+        verify(memento, times(3)).cleanup();
+    }
+
+    @Test
+    public void should_save_once_on_invoke_all() throws Exception {
+        // given
+        given(saver.save()).willReturn(memento);
+        given(memento.copy()).willReturn(memento);
+
+        final ExecutorService pool = Executors.newFixedThreadPool(2);
+        final ExecutorService executor = new DelegatedExecutorService(pool, mementoTaskWrapper);
+
+        // when
+        try {
+            executor.invokeAll(Arrays.asList(callable, callable, callable));
+        } finally {
+            pool.shutdown();
+        }
+
+        // then
+        verify(saver).save();
+        verify(callable, times(3)).call();
+    }
+
 }
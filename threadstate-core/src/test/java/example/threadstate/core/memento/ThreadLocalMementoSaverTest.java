@@ -0,0 +1,95 @@
+package example.threadstate.core.memento;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ThreadLocalMementoSaverTest {
+
+    private final ThreadLocal<Object> local = new ThreadLocal<>();
+
+    @After
+    public void tearDown() throws Exception {
+        local.remove();
+    }
+
+    @Test
+    public void should_restore_and_remove_value() throws Exception {
+        // given
+        final ThreadLocalMementoSaver<Object> saver = new ThreadLocalMementoSaver<>(local);
+        final Object value = new Object();
+
+        // when
+        final Object previous = saver.restore(value);
+        final Object restoredValue = local.get();
+        saver.cleanup(value, previous);
+
+        // then
+        assertThat(previous).isNull();
+        assertThat(restoredValue).isSameAs(value);
+        assertThat(local.get()).isNull();
+    }
+
+    @Test
+    public void should_not_restore_value_already_held_by_thread() throws Exception {
+        // given
+        final ThreadLocalMementoSaver<Object> saver = new ThreadLocalMementoSaver<>(local);
+        final Object value = new Object();
+        local.set(value);
+
+        // when
+        final ThreadStateMemento memento = saver.save();
+        memento.restore();
+        memento.cleanup();
+
+        // then
+        assertThat(saver.restore(value)).isSameAs(ValueMementoSaver.UNCHANGED);
+        assertThat(local.get()).isSameAs(value);
+    }
+
+    @Test
+    public void should_cleanup_value_changed_by_task_when_already_held_by_thread() throws Exception {
+        // given
+        final ThreadLocalMementoSaver<Object> saver = new ThreadLocalMementoSaver<>(local);
+        final ThreadStateMemento absentMemento = saver.save();
+        final Object value = new Object();
+        local.set(value);
+        final ThreadStateMemento memento = saver.save();
+
+        // when
+        memento.restore();
+        local.set(new Object());
+        memento.cleanup();
+        final Object valueAfterCleanup = local.get();
+        local.remove();
+        absentMemento.restore();
+        local.set(new Object());
+        absentMemento.cleanup();
+
+        // then
+        assertThat(valueAfterCleanup).isSameAs(value);
+        assertThat(local.get()).isNull();
+    }
+
+    @Test
+    public void should_reset_previous_value_on_cleanup_with_reset_mode() throws Exception {
+        // given
+        final ThreadLocalMementoSaver<Object> saver = new ThreadLocalMementoSaver<>(local, CleanupMode.RESET);
+        final Object value = new Object();
+        final Object previousValue = new Object();
+
+        // when
+        local.set(value);
+        final ThreadStateMemento memento = saver.save();
+        local.set(previousValue);
+        memento.restore();
+        final Object restoredValue = local.get();
+        memento.cleanup();
+
+        // then
+        assertThat(restoredValue).isSameAs(value);
+        assertThat(local.get()).isSameAs(previousValue);
+    }
+
+}
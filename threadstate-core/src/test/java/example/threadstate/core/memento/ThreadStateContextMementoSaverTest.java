@@ -0,0 +1,101 @@
+package example.threadstate.core.memento;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ThreadStateContextMementoSaverTest {
+
+    private static final ThreadStateContext.Slot<String> SLOT1 = ThreadStateContext.newSlot();
+
+    private static final ThreadStateContext.Slot<String> SLOT2 = ThreadStateContext.newSlot();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @After
+    public void tearDown() throws Exception {
+        ThreadStateContext.current().clear();
+
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    @Test
+    public void should_restore_all_slots() throws Exception {
+        // given
+        SLOT1.set("1");
+        SLOT2.set("2");
+
+        final ThreadStateMemento memento = new ThreadStateContextMementoSaver().save();
+
+        // when
+        final String threadValues = executor.submit(() -> {
+            memento.restore();
+            return SLOT1.get() + SLOT2.get();
+        }).get();
+
+        // then
+        assertThat(threadValues).isEqualTo("12");
+    }
+
+    @Test
+    public void should_not_modify_captured_slots_on_write() throws Exception {
+        // given
+        SLOT1.set("1");
+
+        final ThreadStateMemento memento = new ThreadStateContextMementoSaver().save();
+
+        // when
+        final String threadValue = executor.submit(() -> {
+            memento.restore();
+            SLOT1.set("modified");
+            memento.cleanup();
+            memento.restore();
+            return SLOT1.get();
+        }).get();
+
+        // then
+        assertThat(threadValue).isEqualTo("1");
+    }
+
+    @Test
+    public void should_cleanup_all_slots() throws Exception {
+        // given
+        SLOT1.set("1");
+
+        final ThreadStateMemento memento = new ThreadStateContextMementoSaver().save();
+
+        // when
+        final String threadValue = executor.submit(() -> {
+            memento.restore();
+            memento.cleanup();
+            return SLOT1.get();
+        }).get();
+
+        // then
+        assertThat(threadValue).isNull();
+    }
+
+    @Test
+    public void should_bind_thread_local_saver_to_slot() throws Exception {
+        // given
+        SLOT1.set("1");
+
+        final ThreadStateMemento memento = new ThreadLocalMementoSaver<>(SLOT1).save();
+
+        // when
+        final String threadValue = executor.submit(() -> {
+            memento.restore();
+            return SLOT1.get();
+        }).get();
+
+        // then
+        assertThat(threadValue).isEqualTo("1");
+    }
+
+}
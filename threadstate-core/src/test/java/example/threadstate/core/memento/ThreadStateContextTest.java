@@ -0,0 +1,59 @@
+package example.threadstate.core.memento;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ThreadStateContextTest {
+
+    private static final ThreadStateContext.Slot<String> SLOT = ThreadStateContext.newSlot();
+
+    private static final ThreadStateContext.Slot<String> INITIALIZED_SLOT = ThreadStateContext.newSlot(() -> "initial");
+
+    @After
+    public void tearDown() throws Exception {
+        ThreadStateContext.current().clear();
+    }
+
+    @Test
+    public void should_get_set_and_remove_slot_values() throws Exception {
+        // when
+        final String initialValue = SLOT.get();
+        SLOT.set("value");
+        final String value = SLOT.get();
+        SLOT.remove();
+
+        // then
+        assertThat(initialValue).isNull();
+        assertThat(value).isEqualTo("value");
+        assertThat(SLOT.get()).isNull();
+    }
+
+    @Test
+    public void should_get_initial_value() throws Exception {
+        // when
+        final String initialValue = INITIALIZED_SLOT.get();
+        INITIALIZED_SLOT.set("value");
+        final String value = INITIALIZED_SLOT.get();
+
+        // then
+        assertThat(initialValue).isEqualTo("initial");
+        assertThat(value).isEqualTo("value");
+    }
+
+    @Test
+    public void should_copy_shared_values_on_write() throws Exception {
+        // given
+        SLOT.set("value");
+        final Object[] shared = ThreadStateContext.current().share();
+
+        // when
+        SLOT.set("other");
+
+        // then
+        assertThat(shared).contains("value");
+        assertThat(ThreadStateContext.current().values()).isNotSameAs(shared).contains("other");
+    }
+
+}
@@ -1,15 +1,20 @@
 package example.threadstate.core.retry;
 
+import example.threadstate.core.memento.Deadline;
+import example.threadstate.core.memento.DeadlineExceededException;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
@@ -154,6 +159,51 @@ public class AsyncRetryExecutorTest {
         verify(retryPolicy, never()).getWaitTime(anyInt());
     }
 
+    @Test
+    public void should_not_retry_after_deadline() throws Exception {
+        // given
+        final AsyncRetryExecutor asyncRetryExecutor = createAsyncRetryExecutor();
+
+        final Deadline deadline = Deadline.after(1, TimeUnit.HOURS);
+        final RuntimeException exception = new RuntimeException();
+        given(supplier.get()).will(invocation -> {
+            deadline.cancel();
+            throw exception;
+        });
+
+        // when
+        final AtomicReference<CompletableFuture<Object>> future = new AtomicReference<>();
+        Deadline.runWithin(deadline, () -> future.set(asyncRetryExecutor.execute(supplier)));
+        final Throwable futureException = catchThrowable(() -> future.get().get());
+
+        // then
+        assertThat(futureException).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(AbortRetryException.class);
+        assertThat(futureException.getCause()).hasCauseInstanceOf(DeadlineExceededException.class);
+        assertThat(futureException.getCause().getCause().getSuppressed()).containsExactly(exception);
+
+        verify(supplier, times(1)).get();
+        verify(retryPolicy, never()).getWaitTime(anyInt());
+    }
+
+    @Test
+    public void should_not_execute_after_deadline() throws Exception {
+        // given
+        final AsyncRetryExecutor asyncRetryExecutor = createAsyncRetryExecutor();
+
+        final Deadline deadline = Deadline.after(0, TimeUnit.MILLISECONDS);
+
+        // when
+        final AtomicReference<CompletableFuture<Object>> future = new AtomicReference<>();
+        Deadline.runWithin(deadline, () -> future.set(asyncRetryExecutor.execute(supplier)));
+        final Throwable futureException = catchThrowable(() -> future.get().get());
+
+        // then
+        assertThat(futureException).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(AbortRetryException.class);
+        assertThat(futureException.getCause()).hasCauseInstanceOf(DeadlineExceededException.class);
+
+        verify(supplier, never()).get();
+    }
+
     private AsyncRetryExecutor createAsyncRetryExecutor() {
         final AsyncRetryExecutor asyncRetryExecutor = new AsyncRetryExecutor(
             scheduledExecutor,
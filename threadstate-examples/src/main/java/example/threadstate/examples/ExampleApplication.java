@@ -1,12 +1,17 @@
 package example.threadstate.examples;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import example.threadstate.core.executors.RingBufferExecutorService;
+import example.threadstate.core.executors.TaskWrapper;
+import example.threadstate.core.memento.DeadlineMementoSaver;
+import example.threadstate.core.memento.DeadlineTaskWrapper;
 import example.threadstate.core.memento.MDCMementoSaver;
 import example.threadstate.core.memento.MementoTaskWrapper;
 import example.threadstate.core.memento.ThreadStateMementoSaver;
 import example.threadstate.spring.DelegatedExecutorBeanPostProcessor;
 import example.threadstate.spring.RequestContextMementoSaver;
 import example.threadstate.spring.SecurityContextMementoSaver;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -27,10 +32,14 @@ public class ExampleApplication {
 
     @Bean
     @Primary
-    public ExecutorService defaultExecutor() {
+    public ExecutorService defaultExecutor(@Value("${executors.default.ring-buffer:false}") boolean ringBuffer) {
         final ThreadFactory threadFactory = new ThreadFactoryBuilder()
             .setNameFormat("default-%d")
             .build();
+        if (ringBuffer) {
+            // Only for short non blocking tasks: a fixed set of workers avoids spawning threads under bursts
+            return new RingBufferExecutorService(Runtime.getRuntime().availableProcessors(), 1024, threadFactory);
+        }
         return Executors.newCachedThreadPool(threadFactory);
     }
 
@@ -44,12 +53,17 @@ public class ExampleApplication {
 
     @Bean
     public DelegatedExecutorBeanPostProcessor requestMementoExecutorBeanPostProcessor() {
-        final ThreadStateMementoSaver mementoSaver = new MDCMementoSaver()
+        final ThreadStateMementoSaver mementoSaver = MDCMementoSaver.forCurrentBinding()
             .andThen(new RequestContextMementoSaver())
-            .andThen(new SecurityContextMementoSaver());
+            .andThen(new SecurityContextMementoSaver())
+            .andThen(new DeadlineMementoSaver())
+            .cached();
 
-        final MementoTaskWrapper taskWrapper = new MementoTaskWrapper(mementoSaver);
-        return new DelegatedExecutorBeanPostProcessor(taskWrapper);
+        // Deadline is checked once the state has been restored
+        final TaskWrapper taskWrapper = new MementoTaskWrapper(mementoSaver).andThen(new DeadlineTaskWrapper());
+        final DelegatedExecutorBeanPostProcessor processor = new DelegatedExecutorBeanPostProcessor(taskWrapper);
+        processor.setConcurrencyLimitSelector((bean, beanName) -> beanName.equals("asyncTaskExecutor"));
+        return processor;
     }
 
 }
@@ -1,5 +1,7 @@
 package example.threadstate.examples;
 
+import example.threadstate.core.concurrent.CompletableFutures;
+import example.threadstate.core.memento.Deadline;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,8 +15,9 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
-import java.util.concurrent.CompletableFuture;
+import javax.ws.rs.core.Response;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static example.threadstate.core.concurrent.CompletableFutures.withUnwrappedException;
 
@@ -37,18 +40,25 @@ public class HelloResource {
     @GET
     @Produces(MediaType.TEXT_PLAIN)
     public void home(@Suspended AsyncResponse asyncResponse) {
-        executor.submit(() -> {
+        final Deadline deadline = Deadline.after(5, TimeUnit.SECONDS);
+        asyncResponse.setTimeout(5, TimeUnit.SECONDS);
+        asyncResponse.setTimeoutHandler(response -> {
+            deadline.cancel();
+            response.resume(Response.status(Response.Status.SERVICE_UNAVAILABLE).build());
+        });
+
+        Deadline.runWithin(deadline, () -> executor.submit(() -> {
             LOGGER.info("Sending response in other thread...");
             LOGGER.info("Request content: {}", RequestContextHolder.getRequestAttributes());
 
-            CompletableFuture.runAsync(publisherService::publish, asyncExecutor)
+            CompletableFutures.runAsync(publisherService::publish, asyncExecutor)
                 .exceptionally(withUnwrappedException(e -> {
                     LOGGER.error("Publish failed", e);
                     return null;
                 }));
 
             asyncResponse.resume("Home");
-        });
+        }));
 
         LOGGER.info("Detached!");
     }
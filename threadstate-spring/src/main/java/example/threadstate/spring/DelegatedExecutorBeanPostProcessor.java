@@ -1,7 +1,9 @@
 package example.threadstate.spring;
 
+import example.threadstate.core.executors.AdaptiveConcurrencyLimitExecutorService;
 import example.threadstate.core.executors.DelegatedExecutor;
 import example.threadstate.core.executors.DelegatedExecutorService;
+import example.threadstate.core.executors.DelegatedForkJoinPool;
 import example.threadstate.core.executors.DelegatedScheduledExecutorService;
 import example.threadstate.core.executors.TaskWrapper;
 import org.slf4j.Logger;
@@ -12,8 +14,10 @@ import org.springframework.beans.factory.config.BeanPostProcessor;
 
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.BiPredicate;
+import java.util.function.Function;
 
 public class DelegatedExecutorBeanPostProcessor implements BeanPostProcessor, BeanNameAware {
 
@@ -25,6 +29,11 @@ public class DelegatedExecutorBeanPostProcessor implements BeanPostProcessor, Be
 
     private BiPredicate<Object, String> beanSelector = (bean, beanName) -> true;
 
+    // Executor services opting in to an adaptive concurrency limit, none by default
+    private BiPredicate<Object, String> concurrencyLimitSelector = (bean, beanName) -> false;
+
+    private Function<ExecutorService, ExecutorService> concurrencyLimitFactory = AdaptiveConcurrencyLimitExecutorService::new;
+
     public DelegatedExecutorBeanPostProcessor() {
     }
 
@@ -45,6 +54,14 @@ public class DelegatedExecutorBeanPostProcessor implements BeanPostProcessor, Be
         this.beanSelector = beanSelector;
     }
 
+    public void setConcurrencyLimitSelector(BiPredicate<Object, String> concurrencyLimitSelector) {
+        this.concurrencyLimitSelector = concurrencyLimitSelector;
+    }
+
+    public void setConcurrencyLimitFactory(Function<ExecutorService, ExecutorService> concurrencyLimitFactory) {
+        this.concurrencyLimitFactory = concurrencyLimitFactory;
+    }
+
     @Override
     public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
         return bean;
@@ -62,7 +79,7 @@ public class DelegatedExecutorBeanPostProcessor implements BeanPostProcessor, Be
         }
 
         // Already wrapped or not processable
-        if (bean instanceof DelegatedExecutor || !beanSelector.test(bean, beanName)) {
+        if (bean instanceof DelegatedExecutor || bean instanceof DelegatedForkJoinPool || !beanSelector.test(bean, beanName)) {
             LOGGER.debug("Processor {}: Executor '{}' will not be wrapped", processorBeanName, beanName);
             return bean;
         }
@@ -72,8 +89,16 @@ public class DelegatedExecutorBeanPostProcessor implements BeanPostProcessor, Be
         if (bean instanceof ScheduledExecutorService) {
             return new DelegatedScheduledExecutorService((ScheduledExecutorService) bean, taskWrapper);
         }
+        if (bean instanceof ForkJoinPool) {
+            return new DelegatedForkJoinPool((ForkJoinPool) bean, taskWrapper);
+        }
         if (bean instanceof ExecutorService) {
-            return new DelegatedExecutorService((ExecutorService) bean, taskWrapper);
+            ExecutorService executorService = (ExecutorService) bean;
+            if (concurrencyLimitSelector.test(bean, beanName)) {
+                LOGGER.info("Processor {}: Limiting concurrency of executor '{}'", processorBeanName, beanName);
+                executorService = concurrencyLimitFactory.apply(executorService);
+            }
+            return new DelegatedExecutorService(executorService, taskWrapper);
         }
         return new DelegatedExecutor((Executor) bean, taskWrapper);
     }
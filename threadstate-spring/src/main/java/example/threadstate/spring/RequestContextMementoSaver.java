@@ -1,45 +1,63 @@
 package example.threadstate.spring;
 
-import example.threadstate.core.memento.ThreadStateMemento;
-import example.threadstate.core.memento.ThreadStateMementoSaver;
+import example.threadstate.core.memento.CleanupMode;
+import example.threadstate.core.memento.ValueMementoSaver;
 import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 
-public class RequestContextMementoSaver implements ThreadStateMementoSaver {
+public class RequestContextMementoSaver implements ValueMementoSaver<RequestAttributes> {
 
-    @Override
-    public ThreadStateMemento save() {
-        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    private final CleanupMode cleanupMode;
 
-        if (attributes == null) {
-            return new ThreadStateMemento() {
+    public RequestContextMementoSaver() {
+        this(CleanupMode.REMOVE);
+    }
 
-                @Override
-                public void restore() {
-                    RequestContextHolder.resetRequestAttributes();
-                }
+    public RequestContextMementoSaver(CleanupMode cleanupMode) {
+        this.cleanupMode = cleanupMode;
+    }
 
-                @Override
-                public void cleanup() {
-                    RequestContextHolder.resetRequestAttributes();
-                }
+    @Override
+    public RequestAttributes capture() {
+        return RequestContextHolder.getRequestAttributes();
+    }
 
-            };
-        }
+    @Override
+    public Object epoch() {
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null ? attributes : EMPTY_EPOCH;
+    }
 
-        return new ThreadStateMemento() {
+    @Override
+    public Object restore(RequestAttributes attributes) {
+        final RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+        if (previous == attributes) {
+            return UNCHANGED;
+        }
 
-            @Override
-            public void restore() {
-                RequestContextHolder.setRequestAttributes(attributes);
-            }
+        install(attributes);
+        return previous;
+    }
 
-            @Override
-            public void cleanup() {
-                RequestContextHolder.resetRequestAttributes();
+    @Override
+    public void cleanup(RequestAttributes attributes, Object previous) {
+        if (previous == UNCHANGED) {
+            if (RequestContextHolder.getRequestAttributes() != attributes) {
+                install(attributes);
             }
+        } else if (cleanupMode == CleanupMode.RESET && previous != null) {
+            RequestContextHolder.setRequestAttributes((RequestAttributes) previous);
+        } else {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
 
-        };
+    private static void install(RequestAttributes attributes) {
+        if (attributes == null) {
+            RequestContextHolder.resetRequestAttributes();
+        } else {
+            RequestContextHolder.setRequestAttributes(attributes);
+        }
     }
 
 }
@@ -1,29 +1,76 @@
 package example.threadstate.spring;
 
-import example.threadstate.core.memento.ThreadStateMemento;
-import example.threadstate.core.memento.ThreadStateMementoSaver;
+import example.threadstate.core.memento.CleanupMode;
+import example.threadstate.core.memento.ValueMementoSaver;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
-public class SecurityContextMementoSaver implements ThreadStateMementoSaver {
+public class SecurityContextMementoSaver implements ValueMementoSaver<SecurityContext> {
+
+    private final CleanupMode cleanupMode;
+
+    public SecurityContextMementoSaver() {
+        this(CleanupMode.REMOVE);
+    }
+
+    public SecurityContextMementoSaver(CleanupMode cleanupMode) {
+        this.cleanupMode = cleanupMode;
+    }
 
     @Override
-    public ThreadStateMemento save() {
-        final SecurityContext securityContext = SecurityContextHolder.getContext();
+    public SecurityContext capture() {
+        return currentContext();
+    }
+
+    @Override
+    public Object epoch() {
+        // The context is captured by reference: changes to its authentication are shared anyway,
+        // unless it was empty and skipped
+        final SecurityContext securityContext = currentContext();
+        return securityContext != null ? securityContext : EMPTY_EPOCH;
+    }
 
-        return new ThreadStateMemento() {
+    @Override
+    public Object restore(SecurityContext securityContext) {
+        final SecurityContext previous = currentContext();
+        if (previous == securityContext) {
+            return UNCHANGED;
+        }
 
-            @Override
-            public void restore() {
-                SecurityContextHolder.setContext(securityContext);
-            }
+        install(securityContext);
+        return previous;
+    }
 
-            @Override
-            public void cleanup() {
-                SecurityContextHolder.clearContext();
+    @Override
+    public void cleanup(SecurityContext securityContext, Object previous) {
+        if (previous == UNCHANGED) {
+            if (currentContext() != securityContext) {
+                install(securityContext);
             }
+        } else if (cleanupMode == CleanupMode.RESET) {
+            install((SecurityContext) previous);
+        } else {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    // getContext() stores a new empty context on threads without one. An empty context is what any thread gets by
+    // default: it's handled as absent and removed again, so that reading the context leaves no state behind.
+    private static SecurityContext currentContext() {
+        final SecurityContext securityContext = SecurityContextHolder.getContext();
+        if (securityContext.getAuthentication() == null) {
+            SecurityContextHolder.clearContext();
+            return null;
+        }
+        return securityContext;
+    }
 
-        };
+    private static void install(SecurityContext securityContext) {
+        if (securityContext == null) {
+            SecurityContextHolder.clearContext();
+        } else {
+            SecurityContextHolder.setContext(securityContext);
+        }
     }
 
 }
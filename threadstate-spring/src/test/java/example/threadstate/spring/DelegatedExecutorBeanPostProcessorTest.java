@@ -2,6 +2,7 @@ package example.threadstate.spring;
 
 import example.threadstate.core.executors.DelegatedExecutor;
 import example.threadstate.core.executors.DelegatedExecutorService;
+import example.threadstate.core.executors.DelegatedForkJoinPool;
 import example.threadstate.core.executors.DelegatedScheduledExecutorService;
 import example.threadstate.core.executors.TaskWrapper;
 import org.junit.After;
@@ -18,6 +19,7 @@ import org.springframework.util.ReflectionUtils;
 
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ScheduledExecutorService;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -70,8 +72,9 @@ public class DelegatedExecutorBeanPostProcessorTest {
         assertThat(executor).isExactlyInstanceOf(DelegatedExecutor.class);
         assertThat(executorService).isExactlyInstanceOf(DelegatedExecutorService.class);
         assertThat(scheduledExecutorService).isExactlyInstanceOf(DelegatedScheduledExecutorService.class);
+        assertThat(applicationContext.getBean("forkJoinPool")).isExactlyInstanceOf(DelegatedForkJoinPool.class);
 
-        verify(taskWrapper, times(3)).wrap(any());
+        verify(taskWrapper, times(3)).wrapRunnable(any());
     }
 
     @After
@@ -107,6 +110,11 @@ public class DelegatedExecutorBeanPostProcessorTest {
             return mock(ScheduledExecutorService.class);
         }
 
+        @Bean
+        public ForkJoinPool forkJoinPool() {
+            return mock(ForkJoinPool.class);
+        }
+
     }
 
 }